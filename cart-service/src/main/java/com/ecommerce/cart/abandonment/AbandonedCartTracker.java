@@ -0,0 +1,187 @@
+package com.ecommerce.cart.abandonment;
+
+import com.ecommerce.cart.repository.CartActivity;
+import com.ecommerce.cart.repository.CartRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+
+import static com.ecommerce.cart.config.RabbitMQConfig.*;
+
+// Detecta carrinhos parados sem varrer a tabela: cada alteração rearma o prazo do usuário na roda de tempo
+// e o tick só processa os baldes vencidos. A roda é local; ao reiniciar é reconstruída por uma consulta
+// por intervalo em last_modified. O disparo é confirmado no banco, o que descarta prazos que outra
+// instância já rearmou e evita notificação duplicada. Se o envio falha, a marca é desfeita e o usuário
+// volta para a roda com um prazo de nova tentativa.
+@Slf4j
+@Component
+public class AbandonedCartTracker {
+
+    private final CartRepository cartRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration idle;
+    private final Duration rebuildLookback;
+    private final Duration retryDelay;
+    private final DelayQueue<TimerBucket> queue = new DelayQueue<>();
+    private final TimingWheel wheel;
+    private final Map<Long, TimerEntry> entries = new HashMap<>();
+
+    public AbandonedCartTracker(CartRepository cartRepository,
+                                RabbitTemplate rabbitTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${cart.abandonment.idle-minutes:60}") long idleMinutes,
+                                @Value("${cart.abandonment.rebuild-lookback-hours:72}") long rebuildLookbackHours,
+                                @Value("${cart.abandonment.retry-seconds:60}") long retrySeconds,
+                                @Value("${cart.abandonment.tick-ms:1000}") long tickMs,
+                                @Value("${cart.abandonment.wheel-size:60}") int wheelSize) {
+        this.cartRepository = cartRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.idle = Duration.ofMinutes(idleMinutes);
+        this.rebuildLookback = Duration.ofHours(rebuildLookbackHours);
+        this.retryDelay = Duration.ofSeconds(retrySeconds);
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), queue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Instant since = Instant.now().minus(idle).minus(rebuildLookback);
+        List<CartActivity> carts = cartRepository.findAbandonmentCandidates(since);
+        List<Long> expired = new ArrayList<>();
+        synchronized (this) {
+            for (CartActivity cart : carts) {
+                if (!schedule(cart.getUserId(), cart.getLastModified())) {
+                    expired.add(cart.getUserId());
+                }
+            }
+        }
+        log.info("Roda de abandono reconstruída com {} carrinhos ({} já vencidos)", carts.size(), expired.size());
+        expired.forEach(this::notifyAbandoned);
+    }
+
+    public void arm(Long userId, Instant lastModified) {
+        boolean scheduled;
+        synchronized (this) {
+            scheduled = schedule(userId, lastModified);
+        }
+        if (!scheduled) {
+            notifyAbandoned(userId);
+        }
+    }
+
+    public synchronized void cancel(Long userId) {
+        TimerEntry entry = entries.remove(userId);
+        if (entry != null) {
+            entry.cancel();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.abandonment.tick-ms:1000}")
+    public void advance() {
+        List<Long> expired = new ArrayList<>();
+        synchronized (this) {
+            TimerBucket bucket;
+            while ((bucket = queue.poll()) != null) {
+                wheel.advanceClock(bucket.getExpiration());
+                // Entradas de níveis superiores descem de nível; as que venceram disparam
+                bucket.flush(entry -> {
+                    if (!wheel.add(entry) && entries.remove(entry.userId, entry)) {
+                        expired.add(entry.userId);
+                    }
+                });
+            }
+        }
+        expired.forEach(this::notifyAbandoned);
+    }
+
+    private boolean schedule(Long userId, Instant lastModified) {
+        return scheduleAt(userId, lastModified.plus(idle).toEpochMilli());
+    }
+
+    private boolean scheduleAt(Long userId, long deadlineMs) {
+        TimerEntry previous = entries.remove(userId);
+        if (previous != null) {
+            previous.cancel();
+        }
+        TimerEntry entry = new TimerEntry(userId, deadlineMs);
+        if (!wheel.add(entry)) {
+            return false;
+        }
+        entries.put(userId, entry);
+        return true;
+    }
+
+    private void notifyAbandoned(Long userId) {
+        // Mesma precisão da coluna, para clearAbandoned encontrar a marca pelo valor exato
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        boolean marked = false;
+        try {
+            if (cartRepository.markAbandoned(userId, now.minus(idle), now) == 0) {
+                return;
+            }
+            marked = true;
+            CartActivity cart = cartRepository.findActivityByUserId(userId).orElse(null);
+            if (cart == null) {
+                return;
+            }
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("action", "cart_abandoned");
+            data.put("userId", userId.toString());
+            data.put("itemCount", cart.getItemCount());
+            data.put("total", cart.getSubtotal());
+            data.put("lastModified", cart.getLastModified().toString());
+
+            Map<String, Object> notification = new LinkedHashMap<>();
+            notification.put("userId", userId);
+            notification.put("type", "CART_UPDATE");
+            notification.put("title", "Você deixou itens no carrinho");
+            notification.put("message", String.format("Seu carrinho tem %d item(ns) esperando por você", cart.getItemCount()));
+            notification.put("data", objectMapper.writeValueAsString(data));
+
+            MessageProperties properties = new MessageProperties();
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            rabbitTemplate.send(CART_NOTIFICATION_EXCHANGE, CART_NOTIFICATION_ROUTING_KEY,
+                    new Message(objectMapper.writeValueAsBytes(notification), properties));
+            log.info("Carrinho abandonado notificado para usuário {}", userId);
+        } catch (Exception e) {
+            log.error("Erro ao notificar carrinho abandonado do usuário {}: {}", userId, e.getMessage());
+            if (marked) {
+                retryLater(userId, now);
+            }
+        }
+    }
+
+    private void retryLater(Long userId, Instant abandonedAt) {
+        try {
+            cartRepository.clearAbandoned(userId, abandonedAt);
+        } catch (Exception e) {
+            log.error("Erro ao desfazer marca de abandono do usuário {}: {}", userId, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            // Uma alteração no meio do caminho já rearmou o prazo do usuário
+            if (!entries.containsKey(userId)) {
+                scheduleAt(userId, abandonedAt.plus(retryDelay).toEpochMilli());
+            }
+        }
+    }
+}
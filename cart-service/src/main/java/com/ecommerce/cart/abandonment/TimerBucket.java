@@ -0,0 +1,58 @@
+package com.ecommerce.cart.abandonment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Balde de uma posição da roda: todas as entradas vencem no mesmo tick daquele nível
+class TimerBucket implements Delayed {
+
+    private final Set<TimerEntry> entries = new HashSet<>();
+    private long expirationMs = -1;
+
+    void add(TimerEntry entry) {
+        entries.add(entry);
+        entry.bucket = this;
+    }
+
+    void remove(TimerEntry entry) {
+        if (entries.remove(entry)) {
+            entry.bucket = null;
+        }
+    }
+
+    // Verdadeiro quando o balde passou a representar outro tick e precisa voltar para a fila
+    boolean setExpiration(long expirationMs) {
+        boolean changed = this.expirationMs != expirationMs;
+        this.expirationMs = expirationMs;
+        return changed;
+    }
+
+    long getExpiration() {
+        return expirationMs;
+    }
+
+    void flush(Consumer<TimerEntry> consumer) {
+        List<TimerEntry> drained = new ArrayList<>(entries);
+        entries.clear();
+        expirationMs = -1;
+        for (TimerEntry entry : drained) {
+            entry.bucket = null;
+            consumer.accept(entry);
+        }
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(expirationMs - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(expirationMs, ((TimerBucket) other).expirationMs);
+    }
+}
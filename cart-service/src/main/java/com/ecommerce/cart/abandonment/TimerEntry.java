@@ -0,0 +1,19 @@
+package com.ecommerce.cart.abandonment;
+
+// Prazo de abandono de um carrinho; fica em no máximo um balde da roda por vez
+class TimerEntry {
+    final Long userId;
+    final long deadlineMs;
+    TimerBucket bucket;
+
+    TimerEntry(Long userId, long deadlineMs) {
+        this.userId = userId;
+        this.deadlineMs = deadlineMs;
+    }
+
+    void cancel() {
+        if (bucket != null) {
+            bucket.remove(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.cart.abandonment;
+
+import java.util.concurrent.DelayQueue;
+
+// Roda de tempo hierárquica: cada nível cobre wheelSize ticks do nível abaixo.
+// Prazos além do alcance vão para a roda de cima e descem conforme o relógio avança,
+// então armar ou cancelar custa O(1) independentemente do período de abandono.
+// Somente os baldes com entradas entram na DelayQueue compartilhada entre os níveis.
+class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+    private long currentTimeMs;
+    private TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+    }
+
+    // Falso quando o prazo já venceu e a entrada deve disparar agora
+    boolean add(TimerEntry entry) {
+        long deadline = entry.deadlineMs;
+        if (deadline < currentTimeMs + tickMs) {
+            return false;
+        }
+        if (deadline < currentTimeMs + intervalMs) {
+            long virtualId = deadline / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(intervalMs, wheelSize, currentTimeMs, queue);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTimeMs + tickMs) {
+            currentTimeMs = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTimeMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.cart.cache;
+
+import com.ecommerce.cart.dto.CartResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Cache write-through do carrinho por usuário. Cada entrada carrega a versão do carrinho,
+// então uma escrita atrasada nunca substitui uma versão mais nova.
+@Component
+public class CartCache {
+
+    private final Cache<Long, CachedCart> cache;
+
+    public CartCache(@Value("${cart.cache.max-size:50000}") long maxSize,
+                     @Value("${cart.cache.idle-minutes:30}") long idleMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    public Optional<CartResponse> get(Long userId) {
+        CachedCart cached = cache.getIfPresent(userId);
+        return cached != null ? Optional.of(cached.cart) : Optional.empty();
+    }
+
+    public void put(Long userId, long version, CartResponse cart) {
+        cache.asMap().merge(userId, new CachedCart(version, cart),
+                (current, candidate) -> candidate.version >= current.version ? candidate : current);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    // Chamado quando outra instância grava uma versão: descarta a cópia local se for mais antiga
+    public void evictIfOlder(Long userId, long version) {
+        cache.asMap().computeIfPresent(userId, (key, current) -> current.version < version ? null : current);
+    }
+
+    private record CachedCart(long version, CartResponse cart) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.dto.CheckoutCommand;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
+
+@FeignClient(name = "order-service")
+public interface OrderClient {
+
+    // O pedido criado é devolvido ao frontend como veio do order-service
+    @PostMapping("/api/orders/checkout")
+    Map<String, Object> checkout(@RequestBody CheckoutCommand command);
+}
@@ -9,6 +9,14 @@ public class RabbitMQConfig {
     public static final String CART_EXCHANGE = "cart.exchange";
     public static final String CART_ROUTING_KEY = "cart.routing.key";
     public static final String CART_QUEUE = "cart.queue";
+    // Confirmações de checkout publicadas pelo order-service
+    public static final String CART_CHECKOUT_QUEUE = "cart.checkout.queue";
+    public static final String CART_CHECKOUT_ROUTING_KEY = "cart.checkout.key";
+    // Fanout entre as instâncias do cart-service para invalidar o cache local de carrinhos
+    public static final String CART_CACHE_EXCHANGE = "cart.cache.exchange";
+    // Exchange de notificações de carrinho declarada pelo notification-service
+    public static final String CART_NOTIFICATION_EXCHANGE = "cart.notification.exchange";
+    public static final String CART_NOTIFICATION_ROUTING_KEY = "cart.notification.key";
 
     @Bean
     public DirectExchange cartExchange() {
@@ -27,4 +35,39 @@ public class RabbitMQConfig {
                 .to(cartExchange())
                 .with(CART_ROUTING_KEY);
     }
+
+    @Bean
+    public Queue cartCheckoutQueue() {
+        return new Queue(CART_CHECKOUT_QUEUE);
+    }
+
+    @Bean
+    public Binding cartCheckoutBinding() {
+        return BindingBuilder
+                .bind(cartCheckoutQueue())
+                .to(cartExchange())
+                .with(CART_CHECKOUT_ROUTING_KEY);
+    }
+
+    @Bean
+    public TopicExchange cartNotificationExchange() {
+        return new TopicExchange(CART_NOTIFICATION_EXCHANGE);
+    }
+
+    @Bean
+    public FanoutExchange cartCacheExchange() {
+        return new FanoutExchange(CART_CACHE_EXCHANGE);
+    }
+
+    @Bean
+    public Queue cartCacheQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cartCacheBinding() {
+        return BindingBuilder
+                .bind(cartCacheQueue())
+                .to(cartCacheExchange());
+    }
 } 
\ No newline at end of file
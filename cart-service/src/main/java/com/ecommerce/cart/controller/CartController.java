@@ -1,10 +1,15 @@
 package com.ecommerce.cart.controller;
 
+import com.ecommerce.cart.dto.CartBatchRequest;
 import com.ecommerce.cart.dto.CartItemRequest;
 import com.ecommerce.cart.dto.CartResponse;
+import com.ecommerce.cart.dto.CheckoutRequest;
 import com.ecommerce.cart.service.CartService;
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +38,16 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PutMapping("/items")
+    public ResponseEntity<CartResponse> setItems(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestBody CartBatchRequest batchRequest) {
+        log.info("Atualizando {} itens do carrinho do usuário {}", 
+                batchRequest.getItems() != null ? batchRequest.getItems().size() : 0, userId);
+        CartResponse cart = cartService.setItems(userId, batchRequest);
+        return ResponseEntity.ok(cart);
+    }
+
     @PutMapping("/{itemId}")
     public ResponseEntity<CartResponse> updateItemQuantity(
             @RequestHeader("X-User-Id") Long userId,
@@ -59,4 +74,19 @@ public class CartController {
         CartResponse cart = cartService.clearCart(userId);
         return ResponseEntity.ok(cart);
     }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestBody CheckoutRequest checkoutRequest) {
+        log.info("Checkout do carrinho do usuário {}", userId);
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(cartService.checkout(userId, checkoutRequest));
+        } catch (FeignException e) {
+            // Recusas do order-service (ex.: 409 com os preços atuais) chegam ao frontend como foram geradas
+            log.warn("Checkout do usuário {} recusado pelo order-service: {}", userId, e.status());
+            HttpStatus status = e.status() > 0 ? HttpStatus.valueOf(e.status()) : HttpStatus.SERVICE_UNAVAILABLE;
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(e.contentUTF8());
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.ecommerce.cart.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    // Cada linha define a quantidade final do produto no carrinho; 0 remove o produto
+    private List<CartItemRequest> items;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.cart.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Publicado pelo order-service depois de gravar o pedido do checkout
+@Data
+public class CartCheckedOutEvent {
+    private String userId;
+    private Long orderId;
+    private Long cartVersion;
+    private List<String> productIds;
+}
@@ -2,9 +2,11 @@ package com.ecommerce.cart.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CartItemRequest {
     private String productId;
     private Integer quantity;
-    private Double price;
+    private BigDecimal price;
 } 
\ No newline at end of file
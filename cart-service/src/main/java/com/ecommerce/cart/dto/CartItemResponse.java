@@ -2,11 +2,13 @@ package com.ecommerce.cart.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CartItemResponse {
     private Long id;
     private String productId;
     private Integer quantity;
-    private Double price;
-    private Double subtotal;
+    private BigDecimal price;
+    private BigDecimal subtotal;
 } 
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.ecommerce.cart.dto;
 
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -8,5 +10,6 @@ public class CartResponse {
     private Long id;
     private Long userId;
     private List<CartItemResponse> items;
-    private Double total;
+    private BigDecimal total;
+    private Integer itemCount;
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.ecommerce.cart.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Retrato do carrinho enviado ao order-service em uma única chamada
+@Data
+public class CheckoutCommand {
+    private String userId;
+    private Long cartVersion;
+    private String deliveryAddress;
+    private String paymentMethod;
+    private List<CheckoutItem> items;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutItem {
+    private String productId;
+    private Integer quantity;
+    private BigDecimal expectedPrice;
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.cart.dto;
+
+import lombok.Data;
+
+@Data
+public class CheckoutRequest {
+    private String deliveryAddress;
+    private String paymentMethod;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.cart.messaging;
+
+import com.ecommerce.cart.cache.CartCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartCacheInvalidationListener {
+
+    private final CartCache cartCache;
+
+    // Mensagem "userId:versão" publicada por qualquer instância após gravar um carrinho
+    @RabbitListener(queues = "#{cartCacheQueue.name}")
+    public void handleCartChanged(String message) {
+        String[] parts = message.split(":");
+        if (parts.length != 2) {
+            log.warn("Mensagem de invalidação de carrinho inválida: {}", message);
+            return;
+        }
+        cartCache.evictIfOlder(Long.valueOf(parts[0]), Long.parseLong(parts[1]));
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.cart.messaging;
+
+import com.ecommerce.cart.dto.CartCheckedOutEvent;
+import com.ecommerce.cart.service.CartService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+import static com.ecommerce.cart.config.RabbitMQConfig.CART_CHECKOUT_QUEUE;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartCheckoutListener {
+
+    private final CartService cartService;
+    private final ObjectMapper objectMapper;
+
+    // O order-service publica em JSON; o corpo é lido direto para não depender do conversor padrão
+    @RabbitListener(queues = CART_CHECKOUT_QUEUE)
+    public void handleCartCheckedOut(Message message) throws IOException {
+        CartCheckedOutEvent event = objectMapper.readValue(message.getBody(), CartCheckedOutEvent.class);
+        log.info("Pedido {} confirmado para o carrinho do usuário {}", event.getOrderId(), event.getUserId());
+        cartService.completeCheckout(Long.valueOf(event.getUserId()), event.getCartVersion(), event.getProductIds());
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.cart.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ecommerce.cart.config.RabbitMQConfig.*;
+
+// Agrupa as alterações de carrinho de cada usuário e publica um único evento por janela.
+// A janela fecha quando o usuário fica flush-interval sem alterar o carrinho
+// ou quando o primeiro evento pendente atinge max-latency, o que vier antes.
+// A varredura roda a cada sweep-interval, bem abaixo dos dois limites, para que o prazo de cada janela
+// seja cumprido com atraso de no máximo uma varredura.
+@Slf4j
+@Component
+public class CartEventCoalescer {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final long flushIntervalMs;
+    private final long maxLatencyMs;
+    private final Map<Long, PendingCartEvents> pending = new ConcurrentHashMap<>();
+
+    public CartEventCoalescer(RabbitTemplate rabbitTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${cart.events.flush-interval-ms:2000}") long flushIntervalMs,
+                              @Value("${cart.events.max-latency-ms:10000}") long maxLatencyMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    public void record(Long userId, String action, String productId, int quantity) {
+        long now = System.currentTimeMillis();
+        pending.compute(userId, (key, events) -> {
+            PendingCartEvents current = events != null ? events : new PendingCartEvents(userId, now);
+            current.add(action, productId, quantity, now);
+            return current;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.events.sweep-interval-ms:100}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        for (Long userId : pending.keySet()) {
+            List<PendingCartEvents> due = new ArrayList<>(1);
+            // A decisão e a remoção são atômicas com record(): nenhum evento entra numa janela já publicada
+            pending.computeIfPresent(userId, (key, events) -> {
+                if (now >= events.dueAt(flushIntervalMs, maxLatencyMs)) {
+                    due.add(events);
+                    return null;
+                }
+                return events;
+            });
+            due.forEach(this::publish);
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        for (Long userId : pending.keySet()) {
+            PendingCartEvents events = pending.remove(userId);
+            if (events != null) {
+                publish(events);
+            }
+        }
+    }
+
+    private void publish(PendingCartEvents events) {
+        try {
+            String payload = objectMapper.writeValueAsString(events.toEvent());
+            rabbitTemplate.convertAndSend(CART_EXCHANGE, CART_ROUTING_KEY, payload);
+            log.info("Evento de carrinho enviado para usuário {} ({} alterações)", events.userId, events.eventCount);
+        } catch (Exception e) {
+            log.error("Erro ao enviar evento de carrinho do usuário {}: {}", events.userId, e.getMessage());
+        }
+    }
+
+    private static class PendingCartEvents {
+        private final Long userId;
+        private final long firstAt;
+        private long lastAt;
+        private int eventCount;
+        private String lastAction;
+        private String lastProductId;
+        private int lastQuantity;
+        private final Map<String, Integer> actions = new LinkedHashMap<>();
+        private final Set<String> productIds = new LinkedHashSet<>();
+
+        private PendingCartEvents(Long userId, long firstAt) {
+            this.userId = userId;
+            this.firstAt = firstAt;
+        }
+
+        private void add(String action, String productId, int quantity, long at) {
+            eventCount++;
+            lastAt = at;
+            lastAction = action;
+            lastProductId = productId;
+            lastQuantity = quantity;
+            actions.merge(action, 1, Integer::sum);
+            if (productId != null) {
+                productIds.add(productId);
+            }
+        }
+
+        private long dueAt(long flushIntervalMs, long maxLatencyMs) {
+            return Math.min(lastAt + flushIntervalMs, firstAt + maxLatencyMs);
+        }
+
+        // Janela com uma única alteração mantém o formato original; várias viram um resumo "cart_updated"
+        private Map<String, Object> toEvent() {
+            Map<String, Object> event = new HashMap<>();
+            event.put("userId", userId.toString());
+            if (eventCount == 1) {
+                event.put("action", lastAction);
+                event.put("productId", lastProductId);
+                event.put("quantity", lastQuantity);
+            } else {
+                event.put("action", "cart_updated");
+                event.put("productId", productIds.size() == 1 ? productIds.iterator().next() : null);
+                event.put("quantity", lastQuantity);
+                event.put("actions", actions);
+                event.put("productIds", productIds);
+            }
+            event.put("eventCount", eventCount);
+            event.put("firstEventAt", firstAt);
+            event.put("timestamp", lastAt);
+            return event;
+        }
+    }
+}
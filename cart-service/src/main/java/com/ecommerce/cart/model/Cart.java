@@ -2,12 +2,17 @@ package com.ecommerce.cart.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "carts")
+@Table(name = "carts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_carts_user_id", columnNames = "user_id"),
+        indexes = @Index(name = "idx_carts_last_modified", columnList = "last_modified"))
 public class Cart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +21,36 @@ public class Cart {
     @Column(nullable = false)
     private Long userId;
 
+    // Incrementada a cada alteração; ordena as entradas do CartCache
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    // Totais mantidos a cada alteração de linha, sem percorrer os itens
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(nullable = false)
+    private Instant lastModified = Instant.now();
+
+    // Preenchido quando o abandono é notificado; limpo na próxima alteração
+    private Instant abandonedAt;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
+
+    // Substitui a contribuição anterior de uma linha (quantidade 0 quando a linha não existia ou foi removida)
+    public void applyLineChange(int oldQuantity, BigDecimal oldPrice, int newQuantity, BigDecimal newPrice) {
+        BigDecimal before = oldQuantity > 0 ? oldPrice.multiply(BigDecimal.valueOf(oldQuantity)) : BigDecimal.ZERO;
+        BigDecimal after = newQuantity > 0 ? newPrice.multiply(BigDecimal.valueOf(newQuantity)) : BigDecimal.ZERO;
+        subtotal = subtotal.add(after).subtract(before);
+        itemCount = itemCount + Math.max(newQuantity, 0) - Math.max(oldQuantity, 0);
+    }
+
+    public void resetTotals() {
+        subtotal = BigDecimal.ZERO;
+        itemCount = 0;
+    }
 } 
\ No newline at end of file
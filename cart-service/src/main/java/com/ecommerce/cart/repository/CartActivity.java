@@ -0,0 +1,11 @@
+package com.ecommerce.cart.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface CartActivity {
+    Long getUserId();
+    Instant getLastModified();
+    Integer getItemCount();
+    BigDecimal getSubtotal();
+}
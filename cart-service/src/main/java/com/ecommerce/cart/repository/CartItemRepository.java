@@ -0,0 +1,50 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.model.CartItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Alterações pontuais nas linhas do carrinho, sem regravar o agregado inteiro
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, CartItemRepositoryCustom {
+
+    // Mesma linha por produto: soma a quantidade se o produto já está no carrinho
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, quantity, price) " +
+            "VALUES (:cartId, :productId, :quantity, :price) " +
+            "ON CONFLICT (cart_id, product_id) " +
+            "DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity, price = EXCLUDED.price",
+            nativeQuery = true)
+    int addQuantity(@Param("cartId") Long cartId, @Param("productId") String productId,
+                    @Param("quantity") Integer quantity, @Param("price") BigDecimal price);
+
+    @Query("SELECT i.productId AS productId, i.quantity AS quantity, i.price AS price " +
+            "FROM CartItem i WHERE i.cart.id = :cartId AND i.productId = :productId")
+    Optional<CartLine> findLine(@Param("cartId") Long cartId, @Param("productId") String productId);
+
+    @Query("SELECT i.productId AS productId, i.quantity AS quantity, i.price AS price " +
+            "FROM CartItem i WHERE i.cart.id = :cartId AND i.id = :itemId")
+    Optional<CartLine> findLineById(@Param("cartId") Long cartId, @Param("itemId") Long itemId);
+
+    @Query("SELECT i.productId AS productId, i.quantity AS quantity, i.price AS price " +
+            "FROM CartItem i WHERE i.cart.id = :cartId AND i.productId IN :productIds")
+    List<CartLine> findLines(@Param("cartId") Long cartId, @Param("productIds") Collection<String> productIds);
+
+    @Modifying
+    @Query("UPDATE CartItem i SET i.quantity = :quantity WHERE i.id = :itemId AND i.cart.id = :cartId")
+    int updateQuantity(@Param("cartId") Long cartId, @Param("itemId") Long itemId, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.id = :itemId AND i.cart.id = :cartId")
+    int deleteItem(@Param("cartId") Long cartId, @Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
+}
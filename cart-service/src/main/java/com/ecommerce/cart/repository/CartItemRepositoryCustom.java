@@ -0,0 +1,11 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.dto.CartItemRequest;
+
+import java.util.List;
+
+public interface CartItemRepositoryCustom {
+
+    // Define a quantidade de várias linhas em um único lote JDBC; quantidade <= 0 remove a linha
+    void setQuantities(Long cartId, List<CartItemRequest> items);
+}
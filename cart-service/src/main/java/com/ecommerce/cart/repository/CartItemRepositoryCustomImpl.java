@@ -0,0 +1,38 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.dto.CartItemRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+    private static final String UPSERT =
+            "INSERT INTO cart_items (cart_id, product_id, quantity, price) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity, price = EXCLUDED.price";
+    private static final String DELETE = "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void setQuantities(Long cartId, List<CartItemRequest> items) {
+        List<Object[]> upserts = items.stream()
+                .filter(item -> item.getQuantity() > 0)
+                .map(item -> new Object[]{cartId, item.getProductId(), item.getQuantity(), item.getPrice()})
+                .collect(Collectors.toList());
+        List<Object[]> deletes = items.stream()
+                .filter(item -> item.getQuantity() <= 0)
+                .map(item -> new Object[]{cartId, item.getProductId()})
+                .collect(Collectors.toList());
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE, deletes);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.cart.repository;
+
+import java.math.BigDecimal;
+
+// Leitura da linha antes de um comando pontual; não fica gerenciada pelo contexto de persistência
+public interface CartLine {
+    String getProductId();
+    Integer getQuantity();
+    BigDecimal getPrice();
+}
@@ -1,17 +1,55 @@
 package com.ecommerce.cart.repository;
 
 import com.ecommerce.cart.model.Cart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
-    Optional<Cart> findByUserId(Long userId);
-    
+
+    // Serializa alterações concorrentes do mesmo carrinho, mantendo a versão monotônica
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c FROM Cart c WHERE c.userId = ?1")
-    List<Cart> findAllByUserId(Long userId);
-    
-    @Query("SELECT c FROM Cart c WHERE c.userId = ?1 ORDER BY c.id ASC")
-    Optional<Cart> findFirstByUserIdOrderById(Long userId);
-} 
\ No newline at end of file
+    Optional<Cart> findByUserIdForUpdate(Long userId);
+
+    // Retrato do carrinho com os itens em uma consulta, sem bloquear a linha durante o checkout
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.userId = ?1")
+    Optional<Cart> findWithItemsByUserId(Long userId);
+
+    // Primeiras requisições concorrentes do mesmo usuário: só uma insere, as demais não fazem nada
+    @Modifying
+    @Query(value = "INSERT INTO carts (user_id, version, subtotal, item_count, last_modified) VALUES (:userId, 0, 0, 0, now()) " +
+            "ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Faixa em idx_carts_last_modified usada para reconstruir a roda de abandono
+    @Query("SELECT c.userId AS userId, c.lastModified AS lastModified, c.itemCount AS itemCount, c.subtotal AS subtotal " +
+            "FROM Cart c WHERE c.lastModified >= :since AND c.itemCount > 0 AND c.abandonedAt IS NULL")
+    List<CartActivity> findAbandonmentCandidates(@Param("since") Instant since);
+
+    @Query("SELECT c.userId AS userId, c.lastModified AS lastModified, c.itemCount AS itemCount, c.subtotal AS subtotal " +
+            "FROM Cart c WHERE c.userId = :userId")
+    Optional<CartActivity> findActivityByUserId(@Param("userId") Long userId);
+
+    // Só marca se o carrinho continua parado, com itens e ainda não notificado
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cart c SET c.abandonedAt = :now WHERE c.userId = :userId AND c.lastModified <= :idleSince " +
+            "AND c.itemCount > 0 AND c.abandonedAt IS NULL")
+    int markAbandoned(@Param("userId") Long userId, @Param("idleSince") Instant idleSince, @Param("now") Instant now);
+
+    // Devolve o carrinho a candidato quando o envio da notificação falha; só desfaz a própria marca
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cart c SET c.abandonedAt = NULL WHERE c.userId = :userId AND c.abandonedAt = :abandonedAt")
+    int clearAbandoned(@Param("userId") Long userId, @Param("abandonedAt") Instant abandonedAt);
+}
@@ -1,10 +1,18 @@
 package com.ecommerce.cart.service;
 
+import com.ecommerce.cart.dto.CartBatchRequest;
 import com.ecommerce.cart.dto.CartItemRequest;
 import com.ecommerce.cart.dto.CartResponse;
+import com.ecommerce.cart.dto.CheckoutRequest;
+
+import java.util.List;
+import java.util.Map;
 
 public interface CartService {
     CartResponse addItemToCart(Long userId, CartItemRequest itemRequest);
+    CartResponse setItems(Long userId, CartBatchRequest batchRequest);
+    Map<String, Object> checkout(Long userId, CheckoutRequest checkoutRequest);
+    void completeCheckout(Long userId, Long cartVersion, List<String> productIds);
     CartResponse getCart(Long userId);
     CartResponse updateItemQuantity(Long userId, Long itemId, Integer quantity);
     CartResponse removeItem(Long userId, Long itemId);
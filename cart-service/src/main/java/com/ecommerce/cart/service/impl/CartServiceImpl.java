@@ -1,22 +1,41 @@
 package com.ecommerce.cart.service.impl;
 
-import com.ecommerce.cart.config.RabbitMQConfig;
+import com.ecommerce.cart.abandonment.AbandonedCartTracker;
+import com.ecommerce.cart.cache.CartCache;
+import com.ecommerce.cart.client.OrderClient;
+import com.ecommerce.cart.dto.CartBatchRequest;
 import com.ecommerce.cart.dto.CartItemRequest;
 import com.ecommerce.cart.dto.CartItemResponse;
 import com.ecommerce.cart.dto.CartResponse;
+import com.ecommerce.cart.dto.CheckoutCommand;
+import com.ecommerce.cart.dto.CheckoutItem;
+import com.ecommerce.cart.dto.CheckoutRequest;
+import com.ecommerce.cart.messaging.CartEventCoalescer;
 import com.ecommerce.cart.model.Cart;
 import com.ecommerce.cart.model.CartItem;
+import com.ecommerce.cart.repository.CartItemRepository;
+import com.ecommerce.cart.repository.CartLine;
 import com.ecommerce.cart.repository.CartRepository;
 import com.ecommerce.cart.service.CartService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.ecommerce.cart.config.RabbitMQConfig.*;
@@ -28,20 +47,28 @@ public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
     private final RabbitTemplate rabbitTemplate;
+    private final CartCache cartCache;
+    private final CartItemRepository cartItemRepository;
+    private final CartEventCoalescer cartEventCoalescer;
+    private final AbandonedCartTracker abandonedCartTracker;
+    private final OrderClient orderClient;
 
     @Override
     @Transactional
     public CartResponse addItemToCart(Long userId, CartItemRequest itemRequest) {
+        if (itemRequest.getProductId() == null || itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Produto e quantidade positiva são obrigatórios");
+        }
+        BigDecimal price = normalizePrice(itemRequest.getPrice());
         Cart cart = getOrCreateUniqueCart(userId);
 
-        CartItem cartItem = new CartItem();
-        cartItem.setCart(cart);
-        cartItem.setProductId(itemRequest.getProductId());
-        cartItem.setQuantity(itemRequest.getQuantity());
-        cartItem.setPrice(itemRequest.getPrice());
-
-        cart.getItems().add(cartItem);
-        cart = cartRepository.save(cart);
+        // O upsert soma a quantidade e troca o preço da linha inteira pelo preço atual
+        Optional<CartLine> previous = cartItemRepository.findLine(cart.getId(), itemRequest.getProductId());
+        int previousQuantity = previous.map(CartLine::getQuantity).orElse(0);
+        cartItemRepository.addQuantity(cart.getId(), itemRequest.getProductId(), itemRequest.getQuantity(), price);
+        cart.applyLineChange(previousQuantity, previous.map(CartLine::getPrice).orElse(null),
+                previousQuantity + itemRequest.getQuantity(), price);
+        cart = saveAndCache(cart);
 
         sendCartNotification("item_added", userId.toString(), itemRequest.getProductId(), itemRequest.getQuantity());
         return convertToCartResponse(cart);
@@ -49,23 +76,112 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public CartResponse getCart(Long userId) {
+    public CartResponse setItems(Long userId, CartBatchRequest batchRequest) {
+        // Produto repetido no lote: vale a última linha, como aconteceria aplicando o lote em ordem
+        Map<String, CartItemRequest> byProduct = new LinkedHashMap<>();
+        if (batchRequest.getItems() != null) {
+            for (CartItemRequest item : batchRequest.getItems()) {
+                if (item.getProductId() == null || item.getQuantity() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Produto e quantidade são obrigatórios em cada item");
+                }
+                if (item.getQuantity() > 0) {
+                    item.setPrice(normalizePrice(item.getPrice()));
+                }
+                byProduct.put(item.getProductId(), item);
+            }
+        }
+        List<CartItemRequest> items = new ArrayList<>(byProduct.values());
         Cart cart = getOrCreateUniqueCart(userId);
+
+        Map<String, CartLine> previous = items.isEmpty() ? Map.of() :
+                cartItemRepository.findLines(cart.getId(), byProduct.keySet()).stream()
+                        .collect(Collectors.toMap(CartLine::getProductId, Function.identity()));
+        cartItemRepository.setQuantities(cart.getId(), items);
+        for (CartItemRequest item : items) {
+            CartLine line = previous.get(item.getProductId());
+            cart.applyLineChange(line != null ? line.getQuantity() : 0, line != null ? line.getPrice() : null,
+                    item.getQuantity(), item.getPrice());
+        }
+        cart = saveAndCache(cart);
+
+        sendCartNotification("items_updated", userId.toString(), null, items.size());
         return convertToCartResponse(cart);
     }
 
+    // Sem transação: o order-service é chamado sem manter o carrinho bloqueado
+    @Override
+    public Map<String, Object> checkout(Long userId, CheckoutRequest checkoutRequest) {
+        Cart cart = cartRepository.findWithItemsByUserId(userId)
+                .filter(found -> !found.getItems().isEmpty())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Carrinho vazio"));
+
+        CheckoutCommand command = new CheckoutCommand();
+        command.setUserId(userId.toString());
+        command.setCartVersion(cart.getVersion());
+        command.setDeliveryAddress(checkoutRequest.getDeliveryAddress());
+        command.setPaymentMethod(checkoutRequest.getPaymentMethod());
+        command.setItems(cart.getItems().stream()
+                .map(item -> new CheckoutItem(item.getProductId(), item.getQuantity(), item.getPrice()))
+                .collect(Collectors.toList()));
+
+        log.info("Enviando checkout do carrinho {} (versão {}) com {} itens", cart.getId(), cart.getVersion(), command.getItems().size());
+        return orderClient.checkout(command);
+    }
+
+    // Carrinho inalterado desde o retrato é esvaziado; se o usuário mexeu nele depois, só saem os produtos comprados
+    @Override
+    @Transactional
+    public void completeCheckout(Long userId, Long cartVersion, List<String> productIds) {
+        Cart cart = getOrCreateUniqueCart(userId);
+        if (cart.getVersion().equals(cartVersion)) {
+            clearCart(userId);
+            return;
+        }
+
+        CartBatchRequest batchRequest = new CartBatchRequest();
+        batchRequest.setItems(productIds.stream()
+                .map(productId -> {
+                    CartItemRequest item = new CartItemRequest();
+                    item.setProductId(productId);
+                    item.setQuantity(0);
+                    return item;
+                })
+                .collect(Collectors.toList()));
+        setItems(userId, batchRequest);
+    }
+
+    @Override
+    @Transactional
+    public CartResponse getCart(Long userId) {
+        Optional<CartResponse> cached = cartCache.get(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Cart cart = getOrCreateUniqueCart(userId);
+        CartResponse response = convertToCartResponse(cart);
+        cacheAfterCommit(userId, cart.getVersion(), response, false);
+        return response;
+    }
+
     @Override
     @Transactional
     public CartResponse updateItemQuantity(Long userId, Long itemId, Integer quantity) {
         Cart cart = getOrCreateUniqueCart(userId);
+        int newQuantity = quantity == null ? 0 : quantity;
 
-        cart.getItems().stream()
-                .filter(item -> item.getId().equals(itemId))
-                .findFirst()
-                .ifPresent(item -> item.setQuantity(quantity));
+        Optional<CartLine> line = cartItemRepository.findLineById(cart.getId(), itemId);
+        if (line.isPresent()) {
+            if (newQuantity <= 0) {
+                cartItemRepository.deleteItem(cart.getId(), itemId);
+            } else {
+                cartItemRepository.updateQuantity(cart.getId(), itemId, newQuantity);
+            }
+            cart.applyLineChange(line.get().getQuantity(), line.get().getPrice(), newQuantity, line.get().getPrice());
+        }
 
-        cart = cartRepository.save(cart);
-        sendCartNotification("item_updated", userId.toString(), itemId.toString(), quantity);
+        cart = saveAndCache(cart);
+        sendCartNotification("item_updated", userId.toString(), itemId.toString(), newQuantity);
         return convertToCartResponse(cart);
     }
 
@@ -74,11 +190,14 @@ public class CartServiceImpl implements CartService {
     public CartResponse removeItem(Long userId, Long itemId) {
         Cart cart = getOrCreateUniqueCart(userId);
 
-        cart.getItems().removeIf(item -> item.getId().equals(itemId));
-        cart = cartRepository.save(cart);
+        cartItemRepository.findLineById(cart.getId(), itemId).ifPresent(line -> {
+            cartItemRepository.deleteItem(cart.getId(), itemId);
+            cart.applyLineChange(line.getQuantity(), line.getPrice(), 0, line.getPrice());
+        });
+        Cart saved = saveAndCache(cart);
 
         sendCartNotification("item_removed", userId.toString(), itemId.toString(), 0);
-        return convertToCartResponse(cart);
+        return convertToCartResponse(saved);
     }
 
     @Override
@@ -86,27 +205,77 @@ public class CartServiceImpl implements CartService {
     public CartResponse clearCart(Long userId) {
         Cart cart = getOrCreateUniqueCart(userId);
 
-        cart.getItems().clear();
-        cart = cartRepository.save(cart);
+        cartItemRepository.deleteAllByCartId(cart.getId());
+        cart.resetTotals();
+        cart = saveAndCache(cart);
 
         sendCartNotification("cart_cleared", userId.toString(), null, 0);
         return convertToCartResponse(cart);
     }
 
+    // As linhas já foram gravadas por comandos pontuais; aqui só a versão do carrinho muda.
+    // A coleção de itens ainda não foi carregada nesta transação, então a resposta lê o estado já alterado.
+    // O cache é atualizado somente depois do commit.
+    private Cart saveAndCache(Cart cart) {
+        cart.setVersion(cart.getVersion() + 1);
+        cart.setLastModified(Instant.now());
+        cart.setAbandonedAt(null);
+        Cart saved = cartRepository.saveAndFlush(cart);
+        cacheAfterCommit(saved.getUserId(), saved.getVersion(), convertToCartResponse(saved), true);
+        rearmAbandonmentAfterCommit(saved.getUserId(), saved.getLastModified(), saved.getItemCount() > 0);
+        return saved;
+    }
+
+    // Carrinho vazio não é abandonado; os demais recomeçam a contagem a partir desta alteração
+    private void rearmAbandonmentAfterCommit(Long userId, Instant lastModified, boolean hasItems) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (hasItems) {
+                    abandonedCartTracker.arm(userId, lastModified);
+                } else {
+                    abandonedCartTracker.cancel(userId);
+                }
+            }
+        });
+    }
+
+    private void cacheAfterCommit(Long userId, long version, CartResponse response, boolean changed) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cartCache.evict(userId);
+                    return;
+                }
+                cartCache.put(userId, version, response);
+                if (changed) {
+                    publishCartCacheInvalidation(userId, version);
+                }
+            }
+        });
+    }
+
+    private void publishCartCacheInvalidation(Long userId, long version) {
+        try {
+            rabbitTemplate.convertAndSend(CART_CACHE_EXCHANGE, "", userId + ":" + version);
+        } catch (Exception e) {
+            // Sem a invalidação as outras instâncias servem a versão anterior até a entrada expirar por inatividade
+            log.error("Erro ao publicar invalidação do carrinho do usuário {}: {}", userId, e.getMessage());
+        }
+    }
+
     private CartResponse convertToCartResponse(Cart cart) {
         List<CartItemResponse> items = cart.getItems().stream()
                 .map(this::convertToCartItemResponse)
                 .collect(Collectors.toList());
 
-        double total = items.stream()
-                .mapToDouble(CartItemResponse::getSubtotal)
-                .sum();
-
         CartResponse response = new CartResponse();
         response.setId(cart.getId());
         response.setUserId(cart.getUserId());
         response.setItems(items);
-        response.setTotal(total);
+        response.setTotal(cart.getSubtotal());
+        response.setItemCount(cart.getItemCount());
 
         return response;
     }
@@ -117,61 +286,38 @@ public class CartServiceImpl implements CartService {
         response.setProductId(item.getProductId());
         response.setQuantity(item.getQuantity());
         response.setPrice(item.getPrice());
-        response.setSubtotal(item.getPrice() * item.getQuantity());
+        response.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
         return response;
     }
 
+    private BigDecimal normalizePrice(BigDecimal price) {
+        if (price == null || price.signum() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Preço do item inválido");
+        }
+        // Mesma escala da coluna, para que o subtotal mantido coincida com a soma das linhas gravadas
+        return price.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
     private Cart getOrCreateUniqueCart(Long userId) {
-        List<Cart> carts = cartRepository.findAllByUserId(userId);
-        
-        if (carts.isEmpty()) {
-            // Criar novo carrinho se não existir
-            Cart newCart = new Cart();
-            newCart.setUserId(userId);
-            return cartRepository.save(newCart);
-        } else if (carts.size() == 1) {
-            // Retornar o único carrinho
-            return carts.get(0);
-        } else {
-            // Múltiplos carrinhos encontrados - consolidar
-            log.warn("Múltiplos carrinhos encontrados para usuário {}. Consolidando...", userId);
-            
-            Cart mainCart = carts.get(0); // Manter o primeiro
-            
-            // Mover todos os itens dos outros carrinhos para o principal
-            for (int i = 1; i < carts.size(); i++) {
-                Cart duplicateCart = carts.get(i);
-                for (CartItem item : duplicateCart.getItems()) {
-                    item.setCart(mainCart);
-                    mainCart.getItems().add(item);
-                }
-                // Deletar carrinho duplicado
-                cartRepository.delete(duplicateCart);
-            }
-            
-            // Salvar carrinho principal com todos os itens
-            return cartRepository.save(mainCart);
+        Optional<Cart> cart = cartRepository.findByUserIdForUpdate(userId);
+        if (cart.isPresent()) {
+            return cart.get();
         }
+
+        // A restrição única em user_id decide a corrida entre as primeiras requisições do usuário
+        cartRepository.insertIfAbsent(userId);
+        return cartRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Carrinho não encontrado após criação para o usuário " + userId));
     }
 
+    // Só alterações confirmadas entram na janela; o CartEventCoalescer publica o resumo
     private void sendCartNotification(String action, String userId, String productId, int quantity) {
-        try {
-            Map<String, Object> notification = new HashMap<>();
-            notification.put("action", action);
-            notification.put("userId", userId);
-            notification.put("productId", productId);
-            notification.put("quantity", quantity);
-            notification.put("timestamp", System.currentTimeMillis());
-
-            rabbitTemplate.convertAndSend(
-                CART_EXCHANGE,
-                CART_ROUTING_KEY,
-                notification
-            );
-
-            log.info("Notificação de carrinho enviada: {} para usuário {}", action, userId);
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação de carrinho: {}", e.getMessage());
-        }
+        Long user = Long.valueOf(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cartEventCoalescer.record(user, action, productId, quantity);
+            }
+        });
     }
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+-- Versão usada pelo cache de carrinhos
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Consolida carrinhos duplicados no mais antigo de cada usuário antes de criar a restrição
+UPDATE cart_items ci
+SET cart_id = keep.id
+FROM carts c
+JOIN (SELECT user_id, MIN(id) AS id FROM carts GROUP BY user_id) keep ON keep.user_id = c.user_id
+WHERE ci.cart_id = c.id AND c.id <> keep.id;
+
+DELETE FROM carts c
+USING (SELECT user_id, MIN(id) AS id FROM carts GROUP BY user_id) keep
+WHERE c.user_id = keep.user_id AND c.id <> keep.id;
+
+ALTER TABLE carts ADD CONSTRAINT uk_carts_user_id UNIQUE (user_id);
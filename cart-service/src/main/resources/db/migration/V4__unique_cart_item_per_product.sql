@@ -0,0 +1,12 @@
+-- Soma linhas repetidas do mesmo produto na linha mais antiga antes de criar a restrição
+UPDATE cart_items ci
+SET quantity = totals.quantity
+FROM (SELECT cart_id, product_id, MIN(id) AS id, SUM(quantity) AS quantity
+      FROM cart_items GROUP BY cart_id, product_id HAVING COUNT(*) > 1) totals
+WHERE ci.id = totals.id;
+
+DELETE FROM cart_items ci
+USING (SELECT cart_id, product_id, MIN(id) AS id FROM cart_items GROUP BY cart_id, product_id) keep
+WHERE ci.cart_id = keep.cart_id AND ci.product_id = keep.product_id AND ci.id <> keep.id;
+
+ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id);
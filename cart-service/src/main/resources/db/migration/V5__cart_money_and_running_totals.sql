@@ -0,0 +1,11 @@
+ALTER TABLE cart_items ALTER COLUMN price TYPE NUMERIC(19, 2) USING ROUND(price::numeric, 2);
+
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS subtotal NUMERIC(19, 2) NOT NULL DEFAULT 0;
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 0;
+
+-- Carrinhos existentes partem dos totais atuais; depois disso são mantidos a cada alteração
+UPDATE carts c
+SET subtotal = totals.subtotal, item_count = totals.item_count
+FROM (SELECT cart_id, SUM(price * quantity) AS subtotal, SUM(quantity) AS item_count
+      FROM cart_items GROUP BY cart_id) totals
+WHERE c.id = totals.cart_id;
@@ -0,0 +1,5 @@
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS last_modified TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS abandoned_at TIMESTAMP WITH TIME ZONE;
+
+-- Reconstrução da roda de abandono: uma consulta por intervalo em last_modified
+CREATE INDEX IF NOT EXISTS idx_carts_last_modified ON carts (last_modified);
@@ -0,0 +1,109 @@
+package com.ecommerce.cart.service.impl;
+
+import com.ecommerce.cart.client.OrderClient;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartItemRequest;
+import com.ecommerce.cart.dto.CartItemResponse;
+import com.ecommerce.cart.dto.CartResponse;
+import com.ecommerce.cart.service.CartService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Propriedade: depois de qualquer sequência de operações, o subtotal e a contagem mantidos no carrinho
+// são iguais aos recalculados a partir das linhas gravadas. Cada semente gera uma sequência reproduzível.
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+class CartRunningTotalsPropertyTest {
+
+    private static final int OPERATIONS = 60;
+    private static final List<String> PRODUCTS = List.of("p-1", "p-2", "p-3", "p-4", "p-5");
+    private static final List<String> PRICES = List.of("0.99", "10.00", "19.90", "7.333", "1249.995");
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 7, 42, 1337, 20240601})
+    void runningTotalsMatchStoredLinesAfterRandomOperations(long seed) {
+        Random random = new Random(seed);
+        Long userId = 5000 + seed;
+        CartResponse cart = cartService.getCart(userId);
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            cart = applyRandomOperation(random, userId, cart);
+
+            Map<String, Object> stored = jdbcTemplate.queryForMap(
+                    "SELECT c.subtotal, c.item_count, " +
+                    "COALESCE((SELECT SUM(i.price * i.quantity) FROM cart_items i WHERE i.cart_id = c.id), 0) AS line_total, " +
+                    "COALESCE((SELECT SUM(i.quantity) FROM cart_items i WHERE i.cart_id = c.id), 0) AS line_count " +
+                    "FROM carts c WHERE c.user_id = ?", userId);
+            String context = "semente " + seed + ", operação " + i;
+            assertThat((BigDecimal) stored.get("subtotal")).as(context).isEqualByComparingTo((BigDecimal) stored.get("line_total"));
+            assertThat(((Number) stored.get("item_count")).longValue()).as(context)
+                    .isEqualTo(((Number) stored.get("line_count")).longValue());
+            assertThat(cart.getTotal()).as(context).isEqualByComparingTo((BigDecimal) stored.get("line_total"));
+            assertThat(cart.getItemCount()).as(context).isEqualTo(((Number) stored.get("line_count")).intValue());
+        }
+    }
+
+    private CartResponse applyRandomOperation(Random random, Long userId, CartResponse cart) {
+        int operation = random.nextInt(10);
+        List<CartItemResponse> lines = cart.getItems();
+        if (operation < 4 || lines.isEmpty()) {
+            return cartService.addItemToCart(userId, item(random, 1 + random.nextInt(5)));
+        }
+        if (operation < 6) {
+            CartItemResponse line = lines.get(random.nextInt(lines.size()));
+            // null e zero removem a linha
+            Integer quantity = random.nextInt(8) == 0 ? null : random.nextInt(7);
+            return cartService.updateItemQuantity(userId, line.getId(), quantity);
+        }
+        if (operation < 8) {
+            CartBatchRequest batch = new CartBatchRequest();
+            List<CartItemRequest> items = new ArrayList<>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                items.add(item(random, random.nextInt(6)));
+            }
+            batch.setItems(items);
+            return cartService.setItems(userId, batch);
+        }
+        if (operation < 9) {
+            return cartService.removeItem(userId, lines.get(random.nextInt(lines.size())).getId());
+        }
+        return cartService.clearCart(userId);
+    }
+
+    private CartItemRequest item(Random random, int quantity) {
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(PRODUCTS.get(random.nextInt(PRODUCTS.size())));
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal(PRICES.get(random.nextInt(PRICES.size()))));
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.cart.service.impl;
+
+import com.ecommerce.cart.client.OrderClient;
+import com.ecommerce.cart.dto.CartItemRequest;
+import com.ecommerce.cart.service.CartService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primeiras inclusões simultâneas do mesmo usuário: um único carrinho, uma única linha e nenhuma quantidade perdida
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+class CartServiceConcurrencyTest {
+
+    private static final int REQUESTS = 16;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    @Test
+    void parallelFirstAddsCreateOneCartAndOneLine() throws Exception {
+        Long userId = 1001L;
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cartService.addItemToCart(userId, item("p-1", 2, "10.00"));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id = ?", Integer.class, userId))
+                .isEqualTo(1);
+        Map<String, Object> cart = jdbcTemplate.queryForMap(
+                "SELECT id, item_count, subtotal FROM carts WHERE user_id = ?", userId);
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM cart_items WHERE cart_id = ?", Integer.class, cart.get("id")))
+                .containsExactly(REQUESTS * 2);
+        assertThat(cart.get("item_count")).isEqualTo(REQUESTS * 2);
+        assertThat((BigDecimal) cart.get("subtotal"))
+                .isEqualByComparingTo(new BigDecimal("10.00").multiply(BigDecimal.valueOf(REQUESTS * 2)));
+    }
+
+    private CartItemRequest item(String productId, int quantity, String price) {
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Near-cache na frente do ProductClient: TTL e tamanho limitados, buscas concorrentes do mesmo
+// produto compartilham uma única chamada e o fallback (produto indisponível) nunca é guardado.
+@Component
+@Slf4j
+public class CachedProductClient {
+
+    private final ProductClient productClient;
+    private final Cache<String, ProductDto> cache;
+    private final Map<String, CompletableFuture<ProductDto>> inFlight = new ConcurrentHashMap<>();
+
+    public CachedProductClient(ProductClient productClient, MeterRegistry meterRegistry,
+                               @Value("${orders.product-cache.max-size:10000}") long maxSize,
+                               @Value("${orders.product-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.productClient = productClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product.client.cache");
+    }
+
+    public ProductDto getProduct(String id) {
+        return getProducts(List.of(id)).stream().findFirst().orElse(null);
+    }
+
+    // Retorna na ordem dos IDs informados; produtos inexistentes ficam de fora, como no /batch
+    public List<ProductDto> getProducts(List<String> ids) {
+        Map<String, ProductDto> found = new LinkedHashMap<>();
+        Map<String, CompletableFuture<ProductDto>> waiting = new LinkedHashMap<>();
+        Map<String, CompletableFuture<ProductDto>> owned = new HashMap<>();
+
+        for (String id : ids) {
+            if (found.containsKey(id) || waiting.containsKey(id)) {
+                continue;
+            }
+            ProductDto cached = cache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+                continue;
+            }
+            CompletableFuture<ProductDto> future = new CompletableFuture<>();
+            CompletableFuture<ProductDto> existing = inFlight.putIfAbsent(id, future);
+            if (existing == null) {
+                owned.put(id, future);
+                waiting.put(id, future);
+            } else {
+                waiting.put(id, existing);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            load(owned);
+        }
+
+        for (Map.Entry<String, CompletableFuture<ProductDto>> entry : waiting.entrySet()) {
+            try {
+                ProductDto product = entry.getValue().join();
+                if (product != null) {
+                    found.put(entry.getKey(), product);
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+
+        List<ProductDto> products = new ArrayList<>();
+        for (String id : ids) {
+            ProductDto product = found.remove(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    public void invalidate(String productId) {
+        cache.invalidate(productId);
+        // Uma busca em andamento pode trazer o valor antigo: ela deixa de ser dona da entrada e não grava no cache
+        inFlight.remove(productId);
+    }
+
+    private void load(Map<String, CompletableFuture<ProductDto>> owned) {
+        List<String> ids = new ArrayList<>(owned.keySet());
+        try {
+            // Sempre pelo /batch, inclusive para um único id: produto inexistente simplesmente não volta,
+            // com o mesmo tratamento para pedidos de um ou de vários itens
+            List<ProductDto> loaded = productClient.getProducts(ids);
+
+            Map<String, ProductDto> byId = new HashMap<>();
+            for (ProductDto product : loaded) {
+                if (product != null && product.getId() != null) {
+                    byId.putIfAbsent(product.getId(), product);
+                }
+            }
+
+            for (String id : ids) {
+                ProductDto product = byId.get(id);
+                CompletableFuture<ProductDto> future = owned.get(id);
+                if (product != null && !product.isUnavailable() && inFlight.get(id) == future) {
+                    cache.put(id, product);
+                }
+                inFlight.remove(id, future);
+                future.complete(product);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Erro ao buscar {} produtos: {}", ids.size(), e.getMessage());
+            owned.forEach((id, future) -> {
+                inFlight.remove(id, future);
+                future.completeExceptionally(e);
+            });
+        }
+    }
+}
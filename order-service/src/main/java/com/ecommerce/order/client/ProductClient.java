@@ -5,11 +5,12 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @FeignClient(name = "product-service")
 public interface ProductClient {
@@ -18,9 +19,9 @@ public interface ProductClient {
     @CircuitBreaker(name = "productService", fallbackMethod = "getDefaultProduct")
     ProductDto getProduct(@PathVariable("id") String id);
     
-    @PutMapping("/api/products/{id}/stock")
-    @CircuitBreaker(name = "productService", fallbackMethod = "updateStockFallback")
-    void updateStock(@PathVariable("id") String id, @RequestParam("quantity") int quantity);
+    @GetMapping("/api/products/batch")
+    @CircuitBreaker(name = "productService", fallbackMethod = "getDefaultProducts")
+    List<ProductDto> getProducts(@RequestParam("ids") List<String> ids);
     
     @PostMapping("/api/products/{id}/decrease-stock")
     @CircuitBreaker(name = "productService", fallbackMethod = "updateStockFallback")
@@ -35,9 +36,16 @@ public interface ProductClient {
                 .id(id)
                 .name("Produto Temporariamente Indisponível")
                 .price(BigDecimal.ZERO)
+                .unavailable(true)
                 .build();
     }
     
+    default List<ProductDto> getDefaultProducts(List<String> ids, Exception e) {
+        return ids.stream()
+                .map(id -> getDefaultProduct(id, e))
+                .collect(Collectors.toList());
+    }
+    
     default void updateStockFallback(String id, int quantity, Exception e) {
         // Log do erro e possível notificação
         throw new RuntimeException("Falha ao atualizar estoque do produto: " + id);
@@ -16,18 +16,28 @@ public class RabbitMQConfig {
     public static final String PAYMENT_EXCHANGE = "payment.exchange";
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     public static final String ORDER_NOTIFICATION_EXCHANGE = "order.notification.exchange";
+    public static final String STOCK_EXCHANGE = "stock.exchange";
+    public static final String PRODUCT_CHANGED_EXCHANGE = "product.changed.exchange";
+    public static final String CART_EXCHANGE = "cart.exchange";
     
     // Queues
     public static final String ORDER_QUEUE = "order.queue";
     public static final String PAYMENT_QUEUE = "payment.queue";
     public static final String ORDER_NOTIFICATION_QUEUE = "order.notification.queue";
     public static final String PAYMENT_RESULT_QUEUE = "payment.result.queue";
+    public static final String STOCK_RESERVATION_RESULT_QUEUE = "stock.reservation.result.queue";
     
     // Routing Keys
     public static final String ORDER_ROUTING_KEY = "order.key";
+    public static final String ORDER_PLACED_ROUTING_KEY = "order.placed";
     public static final String PAYMENT_ROUTING_KEY = "payment.key";
     public static final String ORDER_NOTIFICATION_ROUTING_KEY = "order.notification.key";
     public static final String PAYMENT_RESULT_ROUTING_KEY = "payment.result.key";
+    public static final String STOCK_RESERVE_ROUTING_KEY = "stock.reserve.key";
+    public static final String STOCK_RESERVATION_RESULT_ROUTING_KEY = "stock.reservation.result.key";
+    public static final String CART_CHECKOUT_ROUTING_KEY = "cart.checkout.key";
+    public static final String STOCK_RELEASE_ROUTING_KEY = "stock.release.key";
+    public static final String PAYMENT_REFUND_ROUTING_KEY = "payment.refund.key";
     
     @Bean
     public TopicExchange orderExchange() {
@@ -49,6 +59,22 @@ public class RabbitMQConfig {
         return new DirectExchange(ORDER_NOTIFICATION_EXCHANGE);
     }
     
+    @Bean
+    public DirectExchange stockExchange() {
+        return new DirectExchange(STOCK_EXCHANGE);
+    }
+    
+    @Bean
+    public FanoutExchange productChangedExchange() {
+        return new FanoutExchange(PRODUCT_CHANGED_EXCHANGE);
+    }
+    
+    // Declarada também pelo cart-service, que consome a confirmação de checkout
+    @Bean
+    public DirectExchange cartExchange() {
+        return new DirectExchange(CART_EXCHANGE);
+    }
+    
     @Bean
     public Queue orderQueue() {
         return new Queue(ORDER_QUEUE);
@@ -69,6 +95,17 @@ public class RabbitMQConfig {
         return new Queue(PAYMENT_RESULT_QUEUE);
     }
     
+    @Bean
+    public Queue stockReservationResultQueue() {
+        return new Queue(STOCK_RESERVATION_RESULT_QUEUE);
+    }
+    
+    // Fila exclusiva por instância: cada réplica precisa invalidar o próprio cache de produtos
+    @Bean
+    public Queue productChangedQueue() {
+        return new AnonymousQueue();
+    }
+    
     @Bean
     public Binding orderBinding() {
         return BindingBuilder
@@ -101,6 +138,21 @@ public class RabbitMQConfig {
                 .with(PAYMENT_RESULT_ROUTING_KEY);
     }
     
+    @Bean
+    public Binding stockReservationResultBinding() {
+        return BindingBuilder
+                .bind(stockReservationResultQueue())
+                .to(stockExchange())
+                .with(STOCK_RESERVATION_RESULT_ROUTING_KEY);
+    }
+    
+    @Bean
+    public Binding productChangedBinding() {
+        return BindingBuilder
+                .bind(productChangedQueue())
+                .to(productChangedExchange());
+    }
+    
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
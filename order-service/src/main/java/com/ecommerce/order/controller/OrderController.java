@@ -1,16 +1,25 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.dto.CartCheckoutRequest;
+import com.ecommerce.order.dto.OrderPageResponse;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +30,7 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
@@ -32,6 +42,11 @@ public class OrderController {
         return new ResponseEntity<>(orderService.createSimpleOrder(orderRequest), HttpStatus.CREATED);
     }
 
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderResponse> checkoutCart(@Valid @RequestBody CartCheckoutRequest checkoutRequest) {
+        return new ResponseEntity<>(orderService.checkoutCart(checkoutRequest), HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
@@ -48,6 +63,36 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderPageResponse> getOrdersPage(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(status, from, to, cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = outputStream -> orderService.streamOrders(status, from, to, order -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(order));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @PathVariable Long id,
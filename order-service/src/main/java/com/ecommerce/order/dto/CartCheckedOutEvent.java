@@ -0,0 +1,20 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Consumido pelo cart-service para esvaziar o carrinho depois que o pedido foi gravado
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartCheckedOutEvent {
+    private String userId;
+    private Long orderId;
+    private Long cartVersion;
+    private List<String> productIds;
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.model.PaymentMethod;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Comando enviado pelo cart-service com o retrato do carrinho no momento do checkout
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartCheckoutRequest {
+
+    @NotBlank(message = "ID do usuário é obrigatório")
+    private String userId;
+
+    // Versão do carrinho retratada; o cart-service só esvazia o carrinho se ela não mudou
+    @NotNull(message = "Versão do carrinho é obrigatória")
+    private Long cartVersion;
+
+    @NotBlank(message = "Endereço de entrega é obrigatório")
+    private String deliveryAddress;
+
+    @NotNull(message = "Método de pagamento é obrigatório")
+    private PaymentMethod paymentMethod;
+
+    @NotEmpty(message = "Itens do carrinho são obrigatórios")
+    @Valid
+    private List<CheckoutItemRequest> items;
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.order.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutItemRequest {
+
+    @NotBlank(message = "ID do produto é obrigatório")
+    private String productId;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser pelo menos 1")
+    private Integer quantity;
+
+    // Preço exibido no carrinho; o pedido é recusado se o catálogo tiver outro preço
+    @NotNull(message = "Preço esperado é obrigatório")
+    private BigDecimal expectedPrice;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageResponse {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+    private boolean hasMore;
+}
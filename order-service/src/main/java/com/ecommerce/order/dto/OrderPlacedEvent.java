@@ -0,0 +1,20 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPlacedEvent {
+    private Long orderId;
+    private String userId;
+    private List<String> productIds;
+    private LocalDateTime createdAt;
+}
@@ -17,4 +17,6 @@ public class PaymentRequest {
     private String userId;
     private BigDecimal amount;
     private PaymentMethod paymentMethod;
+    // Junto com o orderId identifica a cobrança no payment-service
+    private String idempotencyKey;
 } 
\ No newline at end of file
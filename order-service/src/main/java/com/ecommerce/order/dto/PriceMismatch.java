@@ -0,0 +1,18 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceMismatch {
+    private String productId;
+    private BigDecimal expectedPrice;
+    private BigDecimal currentPrice;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.order.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,8 @@ public class ProductDto {
     private List<String> images;
     private Double rating;
     private Integer reviewCount;
+
+    // Marca o produto montado pelo fallback do circuit breaker; nunca deve ir para o cache
+    @JsonIgnore
+    private boolean unavailable;
 } 
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.ecommerce.order.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(Long id) {
+        super("Pedido não encontrado com id: " + id);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.order.exception;
+
+import com.ecommerce.order.dto.PriceMismatch;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class PriceMismatchException extends RuntimeException {
+
+    private final List<PriceMismatch> mismatches;
+
+    public PriceMismatchException(List<PriceMismatch> mismatches) {
+        super("Preços do carrinho divergem do catálogo para " + mismatches.size() + " produto(s)");
+        this.mismatches = mismatches;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.exception;
+
+// Catálogo indisponível (fallback do circuit breaker): o pedido não pode ser precificado
+public class ProductUnavailableException extends RuntimeException {
+
+    public ProductUnavailableException(String message) {
+        super(message);
+    }
+}
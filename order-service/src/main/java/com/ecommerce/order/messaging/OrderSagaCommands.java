@@ -0,0 +1,49 @@
+package com.ecommerce.order.messaging;
+
+import com.ecommerce.order.dto.PaymentRequest;
+import com.ecommerce.order.dto.RefundPaymentCommand;
+import com.ecommerce.order.dto.ReleaseStockCommand;
+import com.ecommerce.order.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import static com.ecommerce.order.config.RabbitMQConfig.*;
+
+// Passos e compensações do fluxo do pedido: reserva de estoque -> pagamento.
+// Tudo vai pelo outbox, na transação que muda o status do pedido.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSagaCommands {
+
+    // Uma cobrança por pedido: reentregas do resultado da reserva não geram pagamento duplicado
+    private static final String PAYMENT_IDEMPOTENCY_KEY = "order-payment";
+
+    private final OutboxPublisher outboxPublisher;
+
+    public void requestPayment(Order order) {
+        PaymentRequest paymentRequest = PaymentRequest.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .amount(order.getTotalAmount())
+                .paymentMethod(order.getPaymentMethod())
+                .idempotencyKey(PAYMENT_IDEMPOTENCY_KEY)
+                .build();
+        outboxPublisher.publish(PAYMENT_EXCHANGE, PAYMENT_ROUTING_KEY, paymentRequest);
+        log.info("Pagamento solicitado para o pedido {}", order.getId());
+    }
+
+    // Idempotente no product-service: só devolve o estoque de uma reserva bem-sucedida e ainda não liberada
+    public void releaseStock(Order order) {
+        outboxPublisher.publish(STOCK_EXCHANGE, STOCK_RELEASE_ROUTING_KEY,
+                ReleaseStockCommand.builder().orderId(order.getId()).build());
+        log.info("Liberação do estoque reservado solicitada para o pedido {}", order.getId());
+    }
+
+    public void refundPayment(Order order) {
+        outboxPublisher.publish(PAYMENT_EXCHANGE, PAYMENT_REFUND_ROUTING_KEY,
+                RefundPaymentCommand.builder().orderId(order.getId()).build());
+        log.info("Reembolso solicitado para o pedido {}", order.getId());
+    }
+}
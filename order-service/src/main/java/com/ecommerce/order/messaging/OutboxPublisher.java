@@ -0,0 +1,44 @@
+package com.ecommerce.order.messaging;
+
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+// Grava eventos na tabela outbox_events na mesma transação da alteração de negócio.
+// A publicação no RabbitMQ é feita depois pelo OutboxRelay.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String exchange, String routingKey, Object payload) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        MessageProperties properties = message.getMessageProperties();
+        Object typeId = properties.getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+
+        OutboxEvent event = OutboxEvent.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .payload(new String(message.getBody(), StandardCharsets.UTF_8))
+                .contentType(properties.getContentType())
+                .payloadType(typeId != null ? typeId.toString() : null)
+                .build();
+
+        outboxEventRepository.save(event);
+        log.debug("Evento registrado no outbox: exchange {}, routing key {}", exchange, routingKey);
+    }
+}
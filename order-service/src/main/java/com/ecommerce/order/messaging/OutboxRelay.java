@@ -0,0 +1,112 @@
+package com.ecommerce.order.messaging;
+
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Drena o outbox em lotes e só remove os eventos depois da confirmação do broker (at-least-once).
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${orders.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orders.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${orders.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${orders.outbox.relay-interval-ms:500}")
+    @Transactional
+    public void relay() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            publish(batch);
+            outboxEventRepository.deleteAllInBatch(batch);
+            log.info("{} eventos do outbox publicados com confirmação do broker", batch.size());
+        } catch (AmqpConnectException e) {
+            // Broker fora do ar não é culpa dos eventos: não consome tentativas
+            log.error("Broker indisponível, {} eventos do outbox aguardam a próxima drenagem: {}", batch.size(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Erro ao publicar lote de {} eventos do outbox, publicando um a um: {}", batch.size(), e.getMessage());
+            relayOneByOne(batch);
+        }
+    }
+
+    // Isola o evento com problema para que ele não bloqueie os demais do lote
+    private void relayOneByOne(List<OutboxEvent> batch) {
+        List<OutboxEvent> published = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                publish(List.of(event));
+                published.add(event);
+            } catch (AmqpConnectException e) {
+                log.error("Broker indisponível durante a publicação individual do outbox: {}", e.getMessage());
+                break;
+            } catch (Exception e) {
+                recordFailure(event, e);
+            }
+        }
+        outboxEventRepository.deleteAllInBatch(published);
+    }
+
+    private void publish(List<OutboxEvent> events) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : events) {
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        LocalDateTime now = LocalDateTime.now();
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastAttemptAt(now);
+        event.setLastError(e.getMessage());
+        if (event.getAttempts() >= maxAttempts) {
+            event.setParkedAt(now);
+            log.error("Evento {} do outbox ({} -> {}) estacionado após {} tentativas: {}", event.getId(),
+                    event.getExchange(), event.getRoutingKey(), event.getAttempts(), e.getMessage());
+        } else {
+            log.warn("Evento {} do outbox falhou ({}/{}): {}", event.getId(), event.getAttempts(), maxAttempts, e.getMessage());
+        }
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(event.getContentType());
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId("outbox-" + event.getId());
+        if (event.getPayloadType() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getPayloadType());
+        }
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -9,8 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,7 +29,8 @@ public class PaymentResultConsumer {
 
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final OrderSagaCommands orderSagaCommands;
     
     // Conjunto de status que indicam pagamento bem-sucedido
     private static final Set<String> SUCCESSFUL_PAYMENT_STATUSES = new HashSet<>(
@@ -81,7 +80,13 @@ public class PaymentResultConsumer {
             // Atualiza o status do pedido com base no status do pagamento
             boolean statusUpdated = false;
             
-            if (SUCCESSFUL_PAYMENT_STATUSES.contains(paymentStatus.toUpperCase())) {
+            if (SUCCESSFUL_PAYMENT_STATUSES.contains(paymentStatus.toUpperCase())
+                    && order.getStatus() == OrderStatus.CANCELLED) {
+                // Pedido cancelado enquanto o pagamento era processado: não volta para CONFIRMED e a cobrança é estornada
+                log.warn("Pagamento aprovado para o pedido {} já cancelado, solicitando reembolso", order.getId());
+                orderSagaCommands.refundPayment(order);
+                
+            } else if (SUCCESSFUL_PAYMENT_STATUSES.contains(paymentStatus.toUpperCase())) {
                 log.info("Atualizando pedido {} para status CONFIRMED", order.getId());
                 order.setStatus(OrderStatus.CONFIRMED);
                 order.setPaymentId(paymentResponse.getPaymentId());
@@ -91,11 +96,18 @@ public class PaymentResultConsumer {
                 sendPaymentNotification(order.getUserId(), "payment_approved", 
                     String.format("Pagamento do pedido #%d foi aprovado! Seu pedido está sendo processado.", order.getId()));
                     
+            } else if (FAILED_PAYMENT_STATUSES.contains(paymentStatus.toUpperCase())
+                    && order.getStatus() != OrderStatus.PENDING) {
+                log.warn("Pagamento falhou para o pedido {} com status {}, status mantido", order.getId(), order.getStatus());
+                
             } else if (FAILED_PAYMENT_STATUSES.contains(paymentStatus.toUpperCase())) {
                 log.info("Atualizando pedido {} para status CANCELLED", order.getId());
                 order.setStatus(OrderStatus.CANCELLED);
                 statusUpdated = true;
                 
+                // O pagamento só é pedido após a reserva confirmada, então há estoque a devolver
+                orderSagaCommands.releaseStock(order);
+                
                 // Enviar notificação de pagamento rejeitado
                 sendPaymentNotification(order.getUserId(), "payment_failed", 
                     String.format("Pagamento do pedido #%d foi rejeitado. Tente novamente ou use outro método de pagamento.", order.getId()));
@@ -119,19 +131,6 @@ public class PaymentResultConsumer {
         }
     }
     
-    // Método para monitorar se as mensagens estão sendo entregues
-    @Scheduled(fixedRate = 60000) // Executa a cada 1 minuto
-    public void checkQueue() {
-        log.info("Verificando status da fila de pagamentos: {}", PAYMENT_RESULT_QUEUE);
-        try {
-            // Apenas para registrar que o agendador está funcionando
-            int orderCount = orderRepository.findAll().size();
-            log.info("Total de pedidos no sistema: {}", orderCount);
-        } catch (Exception e) {
-            log.error("Erro ao verificar fila: {}", e.getMessage());
-        }
-    }
-
     private void sendPaymentNotification(String userId, String action, String message) {
         try {
             Map<String, Object> notification = new HashMap<>();
@@ -140,7 +139,7 @@ public class PaymentResultConsumer {
             notification.put("message", message);
             notification.put("timestamp", LocalDateTime.now().toString());
 
-            rabbitTemplate.convertAndSend(
+            outboxPublisher.publish(
                 "order.notification.exchange",
                 "order.notification.key",
                 notification
@@ -0,0 +1,26 @@
+package com.ecommerce.order.messaging;
+
+import com.ecommerce.order.client.CachedProductClient;
+import com.ecommerce.order.dto.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangedConsumer {
+
+    private final CachedProductClient cachedProductClient;
+
+    // Cada instância tem sua própria fila anônima ligada ao fanout, então todas invalidam o cache local
+    @RabbitListener(queues = "#{productChangedQueue.name}")
+    public void consumeProductChanged(ProductChangedEvent event) {
+        if (event.getProductId() == null) {
+            return;
+        }
+        log.debug("Produto {} alterado ({}), invalidando cache local", event.getProductId(), event.getChangeType());
+        cachedProductClient.invalidate(event.getProductId());
+    }
+}
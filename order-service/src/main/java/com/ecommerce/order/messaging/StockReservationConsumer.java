@@ -0,0 +1,80 @@
+package com.ecommerce.order.messaging;
+
+import com.ecommerce.order.dto.StockReservationResult;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ecommerce.order.config.RabbitMQConfig.ORDER_NOTIFICATION_EXCHANGE;
+import static com.ecommerce.order.config.RabbitMQConfig.ORDER_NOTIFICATION_ROUTING_KEY;
+import static com.ecommerce.order.config.RabbitMQConfig.STOCK_RESERVATION_RESULT_QUEUE;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationConsumer {
+
+    private final OrderRepository orderRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final OrderSagaCommands orderSagaCommands;
+
+    @RabbitListener(queues = STOCK_RESERVATION_RESULT_QUEUE)
+    @Transactional
+    public void consumeStockReservationResult(StockReservationResult result) {
+        log.info("Resultado da reserva de estoque recebido: {}", result);
+
+        if (result.getOrderId() == null) {
+            log.error("ID do pedido não informado no resultado da reserva de estoque");
+            return;
+        }
+
+        Order order = orderRepository.findById(result.getOrderId()).orElse(null);
+        if (order == null) {
+            log.error("Pedido não encontrado para o resultado da reserva de estoque: {}", result.getOrderId());
+            return;
+        }
+
+        if (result.isSuccess()) {
+            if (order.getStatus() == OrderStatus.PENDING) {
+                // Estoque garantido: só agora o pedido segue para cobrança
+                log.info("Estoque reservado para o pedido {}, solicitando pagamento", order.getId());
+                orderSagaCommands.requestPayment(order);
+            } else if (order.getStatus() == OrderStatus.CANCELLED) {
+                // Cancelado antes da reserva terminar: o estoque reservado volta
+                log.info("Estoque reservado para o pedido {} já cancelado, liberando reserva", order.getId());
+                orderSagaCommands.releaseStock(order);
+            } else {
+                log.info("Resultado de reserva repetido para o pedido {} ({})", order.getId(), order.getStatus());
+            }
+            return;
+        }
+
+        // Só um pedido ainda pendente é cancelado; CONFIRMED ou posterior nunca é sobrescrito
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.warn("Reserva rejeitada para o pedido {} com status {}, status mantido", order.getId(), order.getStatus());
+            return;
+        }
+
+        log.warn("Reserva de estoque rejeitada para o pedido {}: {}. Cancelando pedido", order.getId(), result.getReason());
+        order.setStatus(OrderStatus.CANCELLED);
+        orderRepository.save(order);
+
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("userId", Long.valueOf(order.getUserId()));
+        notification.put("action", "order_cancelled");
+        notification.put("message", String.format(
+                "Pedido #%d foi cancelado: um ou mais produtos não têm estoque suficiente.", order.getId()));
+        notification.put("timestamp", LocalDateTime.now().toString());
+
+        outboxPublisher.publish(ORDER_NOTIFICATION_EXCHANGE, ORDER_NOTIFICATION_ROUTING_KEY, notification);
+    }
+}
@@ -5,13 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, createdAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +30,9 @@ public class Order {
     
     private String deliveryAddress;
     
+    // Carregamento em lote evita um SELECT por pedido quando os itens são acessados fora de um fetch join
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
     private List<OrderItem> items;
     
     private BigDecimal totalAmount;
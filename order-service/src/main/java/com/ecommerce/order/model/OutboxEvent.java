@@ -0,0 +1,55 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_created_at", columnList = "createdAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    private String contentType;
+
+    // Valor do cabeçalho __TypeId__ gerado pelo conversor JSON no momento do enfileiramento
+    private String payloadType;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastAttemptAt;
+
+    // Preenchido quando o evento esgota as tentativas; fica fora da drenagem até ser reprocessado manualmente
+    private LocalDateTime parkedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.order.monitoring;
+
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ecommerce.order.config.RabbitMQConfig.PAYMENT_RESULT_QUEUE;
+
+// Publica métricas da fila de resultados de pagamento e da contagem de pedidos por status.
+// Os valores são atualizados periodicamente para que o scrape do Prometheus não consulte o broker nem o banco.
+@Component
+@Slf4j
+public class OrderMetricsMonitor {
+
+    private final OrderRepository orderRepository;
+    private final AmqpAdmin amqpAdmin;
+
+    private final AtomicLong paymentResultQueueDepth = new AtomicLong();
+    private final AtomicLong paymentResultQueueConsumers = new AtomicLong();
+    private final Map<OrderStatus, AtomicLong> ordersByStatus = new EnumMap<>(OrderStatus.class);
+
+    public OrderMetricsMonitor(OrderRepository orderRepository, AmqpAdmin amqpAdmin, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.amqpAdmin = amqpAdmin;
+
+        // Mensagens prontas e ainda não consumidas: o atraso dos consumidores em número de mensagens
+        Gauge.builder("payment.result.queue.depth", paymentResultQueueDepth, AtomicLong::get)
+                .description("Mensagens aguardando consumo na fila de resultados de pagamento")
+                .tag("queue", PAYMENT_RESULT_QUEUE)
+                .register(meterRegistry);
+        Gauge.builder("payment.result.queue.consumers", paymentResultQueueConsumers, AtomicLong::get)
+                .description("Consumidores ativos na fila de resultados de pagamento")
+                .tag("queue", PAYMENT_RESULT_QUEUE)
+                .register(meterRegistry);
+
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            ordersByStatus.put(status, count);
+            Gauge.builder("orders.by.status", count, AtomicLong::get)
+                    .description("Quantidade de pedidos por status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${orders.monitoring.refresh-interval-ms:60000}")
+    public void refreshQueueMetrics() {
+        try {
+            QueueInformation queueInfo = amqpAdmin.getQueueInfo(PAYMENT_RESULT_QUEUE);
+            if (queueInfo == null) {
+                log.warn("Fila {} não encontrada no broker", PAYMENT_RESULT_QUEUE);
+                return;
+            }
+            paymentResultQueueDepth.set(queueInfo.getMessageCount());
+            paymentResultQueueConsumers.set(queueInfo.getConsumerCount());
+            log.debug("Fila {}: {} mensagens, {} consumidores",
+                    PAYMENT_RESULT_QUEUE, queueInfo.getMessageCount(), queueInfo.getConsumerCount());
+        } catch (Exception e) {
+            log.error("Erro ao consultar métricas da fila {}: {}", PAYMENT_RESULT_QUEUE, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${orders.monitoring.refresh-interval-ms:60000}")
+    public void refreshOrderStatusMetrics() {
+        try {
+            Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+            for (OrderRepository.StatusCount statusCount : orderRepository.countByStatus()) {
+                if (statusCount.getStatus() != null) {
+                    counts.put(statusCount.getStatus(), statusCount.getTotal());
+                }
+            }
+            ordersByStatus.forEach((status, gauge) -> gauge.set(counts.getOrDefault(status, 0L)));
+        } catch (Exception e) {
+            log.error("Erro ao contar pedidos por status: {}", e.getMessage());
+        }
+    }
+}
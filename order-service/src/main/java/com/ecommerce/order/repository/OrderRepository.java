@@ -1,12 +1,64 @@
 package com.ecommerce.order.repository;
 
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = "items")
     List<Order> findByUserId(String userId);
-} 
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllWithItems();
+
+    @Query("SELECT o.status AS status, COUNT(o) AS total FROM Order o GROUP BY o.status")
+    List<StatusCount> countByStatus();
+
+    // Paginação por keyset em (createdAt, id), do mais recente para o mais antigo
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.status IN :statuses " +
+           "AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND (o.createdAt < :cursorCreatedAt OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                               @Param("cursorId") Long cursorId,
+                               Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.status IN :statuses " +
+           "AND o.createdAt >= :from AND o.createdAt < :to " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Stream<Order> streamByFilters(@Param("statuses") Collection<OrderStatus> statuses,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    interface StatusCount {
+        OrderStatus getStatus();
+
+        long getTotal();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED permite que várias instâncias drenem o outbox sem publicar o mesmo evento em paralelo
+    @Query(value = "SELECT * FROM outbox_events WHERE parked_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -1,10 +1,14 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.dto.CartCheckoutRequest;
+import com.ecommerce.order.dto.OrderPageResponse;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.model.OrderStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
     
@@ -16,6 +20,10 @@ public interface OrderService {
     
     List<OrderResponse> getAllOrders();
     
+    OrderPageResponse getOrdersPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size);
+    
+    void streamOrders(OrderStatus status, LocalDateTime from, LocalDateTime to, Consumer<OrderResponse> consumer);
+    
     OrderResponse updateOrderStatus(Long id, OrderStatus status);
     
     OrderResponse updateTrackingInfo(Long id, String trackingNumber);
@@ -23,4 +31,6 @@ public interface OrderService {
     void deleteOrder(Long id);
     
     OrderResponse createSimpleOrder(OrderRequest orderRequest);
+    
+    OrderResponse checkoutCart(CartCheckoutRequest checkoutRequest);
 } 
\ No newline at end of file
@@ -1,25 +1,41 @@
 package com.ecommerce.order.service.impl;
 
-import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.client.CachedProductClient;
+import com.ecommerce.order.messaging.OrderSagaCommands;
+import com.ecommerce.order.messaging.OutboxPublisher;
 import com.ecommerce.order.dto.*;
+import com.ecommerce.order.exception.OrderNotFoundException;
+import com.ecommerce.order.exception.PriceMismatchException;
+import com.ecommerce.order.exception.ProductUnavailableException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
 import com.ecommerce.order.model.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
 import com.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.ecommerce.order.config.RabbitMQConfig.*;
 import org.slf4j.Logger;
@@ -29,95 +45,87 @@ import org.slf4j.LoggerFactory;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final ProductClient productClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final CachedProductClient productClient;
+    private final OutboxPublisher outboxPublisher;
     private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final OrderSagaCommands orderSagaCommands;
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
-
-    public OrderServiceImpl(OrderRepository orderRepository, ProductClient productClient, 
-                            RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    private static final int PRODUCT_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_CHUNK_SIZE = 100;
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    @Value("${orders.product-enrichment.enabled:true}")
+    private boolean productEnrichmentEnabled;
+
+    public OrderServiceImpl(OrderRepository orderRepository, CachedProductClient productClient, 
+                            OutboxPublisher outboxPublisher, ObjectMapper objectMapper,
+                            EntityManager entityManager, OrderSagaCommands orderSagaCommands) {
         this.orderRepository = orderRepository;
         this.productClient = productClient;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxPublisher = outboxPublisher;
         this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.orderSagaCommands = orderSagaCommands;
     }
 
     @Override
     @Transactional
     public OrderResponse createOrder(OrderRequest orderRequest) {
-        Order order = new Order();
-        order.setUserId(orderRequest.getUserId());
-        order.setDeliveryAddress(orderRequest.getDeliveryAddress());
-        order.setStatus(OrderStatus.PENDING);
-        order.setPaymentMethod(orderRequest.getPaymentMethod());
-
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
-            ProductDto product = productClient.getProduct(itemRequest.getProductId());
-            
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProductId(product.getId());
-            orderItem.setProductName(product.getName());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setPrice(product.getPrice());
-            orderItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
-            
-            orderItems.add(orderItem);
-            totalAmount = totalAmount.add(orderItem.getSubtotal());
-        }
-
-        order.setItems(orderItems);
-        order.setTotalAmount(totalAmount);
-
-        Order savedOrder = orderRepository.save(order);
-        log.info("Pedido criado com sucesso: {}", savedOrder.getId());
+        return placeOrder(orderRequest, fetchProducts(orderRequest.getItems()));
+    }
 
-        // Enviar notificação de pedido criado
-        sendOrderNotification(savedOrder.getUserId(), "order_created", 
-            String.format("Pedido #%d criado com sucesso! Total: R$ %.2f", 
-                savedOrder.getId(), savedOrder.getTotalAmount()));
+    @Override
+    @Transactional
+    public OrderResponse checkoutCart(CartCheckoutRequest checkoutRequest) {
+        List<OrderItemRequest> items = checkoutRequest.getItems().stream()
+                .map(item -> OrderItemRequest.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
 
-        // Atualizar estoque dos produtos
-        for (OrderItem item : orderItems) {
-            try {
-                try {
-                    productClient.updateStock(item.getProductId(), -item.getQuantity());
-                    log.info("Estoque atualizado para produto: {}, quantidade: {}", 
-                        item.getProductId(), -item.getQuantity());
-                } catch (Exception e) {
-                    log.warn("Falha ao atualizar estoque via endpoint principal, tentando endpoint alternativo: {}", e.getMessage());
-                    // Tentar com endpoint alternativo
-                    productClient.decreaseStock(item.getProductId(), item.getQuantity());
-                    log.info("Estoque atualizado para produto via endpoint alternativo: {}, quantidade: {}", 
-                        item.getProductId(), item.getQuantity());
-                }
-            } catch (Exception e) {
-                log.error("Erro ao atualizar estoque do produto: {}", item.getProductId(), e);
-                throw new RuntimeException("Erro ao atualizar estoque do produto: " + item.getProductId());
+        // Uma única busca em lote valida todos os preços esperados antes de gravar o pedido
+        Map<String, ProductDto> products = fetchProducts(items);
+        List<PriceMismatch> mismatches = new ArrayList<>();
+        for (CheckoutItemRequest item : checkoutRequest.getItems()) {
+            ProductDto product = products.get(item.getProductId());
+            if (product.getPrice().compareTo(item.getExpectedPrice()) != 0) {
+                mismatches.add(PriceMismatch.builder()
+                        .productId(item.getProductId())
+                        .expectedPrice(item.getExpectedPrice())
+                        .currentPrice(product.getPrice())
+                        .build());
             }
         }
+        if (!mismatches.isEmpty()) {
+            throw new PriceMismatchException(mismatches);
+        }
 
-        // Envia o pedido para processamento de pagamento
-        PaymentRequest paymentRequest = PaymentRequest.builder()
-                .orderId(savedOrder.getId())
-                .userId(savedOrder.getUserId())
-                .amount(savedOrder.getTotalAmount())
-                .paymentMethod(savedOrder.getPaymentMethod())
+        OrderRequest orderRequest = OrderRequest.builder()
+                .userId(checkoutRequest.getUserId())
+                .deliveryAddress(checkoutRequest.getDeliveryAddress())
+                .paymentMethod(checkoutRequest.getPaymentMethod())
+                .items(items)
                 .build();
+        OrderResponse response = placeOrder(orderRequest, products);
+
+        // Na mesma transação do pedido: o carrinho só é esvaziado se o pedido foi gravado
+        CartCheckedOutEvent event = CartCheckedOutEvent.builder()
+                .userId(checkoutRequest.getUserId())
+                .orderId(response.getId())
+                .cartVersion(checkoutRequest.getCartVersion())
+                .productIds(items.stream().map(OrderItemRequest::getProductId).distinct().collect(Collectors.toList()))
+                .build();
+        outboxPublisher.publish(CART_EXCHANGE, CART_CHECKOUT_ROUTING_KEY, event);
+        log.info("Checkout do carrinho do usuário {} gerou o pedido {}", checkoutRequest.getUserId(), response.getId());
 
-        rabbitTemplate.convertAndSend(PAYMENT_EXCHANGE, PAYMENT_ROUTING_KEY, paymentRequest);
-
-        return mapToOrderResponse(savedOrder);
+        return response;
     }
 
-    @Override
-    @Transactional
-    public OrderResponse createSimpleOrder(OrderRequest orderRequest) {
-        log.info("Criando pedido simplificado para usuário: {}", orderRequest.getUserId());
-        
+    private OrderResponse placeOrder(OrderRequest orderRequest, Map<String, ProductDto> products) {
         Order order = new Order();
         order.setUserId(orderRequest.getUserId());
         order.setDeliveryAddress(orderRequest.getDeliveryAddress());
@@ -127,9 +135,8 @@ public class OrderServiceImpl implements OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
-        // Busca os detalhes reais do produto para cada item
         for (OrderItemRequest itemRequest : orderRequest.getItems()) {
-            ProductDto product = productClient.getProduct(itemRequest.getProductId());
+            ProductDto product = products.get(itemRequest.getProductId());
             
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -145,60 +152,34 @@ public class OrderServiceImpl implements OrderService {
 
         order.setItems(orderItems);
         order.setTotalAmount(totalAmount);
-        
-        log.info("Salvando pedido simplificado com {} itens", orderItems.size());
+
         Order savedOrder = orderRepository.save(order);
-        log.info("Pedido simplificado salvo com ID: {}", savedOrder.getId());
+        log.info("Pedido criado com sucesso: {}", savedOrder.getId());
 
         // Enviar notificação de pedido criado
         sendOrderNotification(savedOrder.getUserId(), "order_created", 
             String.format("Pedido #%d criado com sucesso! Total: R$ %.2f", 
                 savedOrder.getId(), savedOrder.getTotalAmount()));
 
-        // Atualizar estoque dos produtos
-        for (OrderItem item : orderItems) {
-            try {
-                try {
-                    productClient.updateStock(item.getProductId(), -item.getQuantity());
-                    log.info("Estoque atualizado para produto em pedido simplificado: {}, quantidade: {}", 
-                        item.getProductId(), -item.getQuantity());
-                } catch (Exception e) {
-                    log.warn("Falha ao atualizar estoque via endpoint principal (pedido simplificado), tentando endpoint alternativo: {}", e.getMessage());
-                    // Tentar com endpoint alternativo
-                    productClient.decreaseStock(item.getProductId(), item.getQuantity());
-                    log.info("Estoque atualizado para produto via endpoint alternativo (pedido simplificado): {}, quantidade: {}", 
-                        item.getProductId(), item.getQuantity());
-                }
-            } catch (Exception e) {
-                log.error("Erro ao atualizar estoque do produto (pedido simplificado): {}", item.getProductId(), e);
-                // Log do erro mas não interrompe o processo para manter compatibilidade com implementação anterior
-                // Pode ser melhorado para lançar exceção se necessário
-            }
-        }
-
-        // Envia o pedido para processamento de pagamento
-        PaymentRequest paymentRequest = PaymentRequest.builder()
-                .orderId(savedOrder.getId())
-                .userId(savedOrder.getUserId())
-                .amount(savedOrder.getTotalAmount())
-                .paymentMethod(savedOrder.getPaymentMethod())
-                .build();
-
-        try {
-            rabbitTemplate.convertAndSend(PAYMENT_EXCHANGE, PAYMENT_ROUTING_KEY, paymentRequest);
-            log.info("Pedido simplificado enviado para processamento de pagamento");
-        } catch (Exception e) {
-            log.error("Erro ao enviar pedido simplificado para processamento de pagamento: {}", e.getMessage());
-            // Não interrompe o fluxo em caso de erro no RabbitMQ
-        }
+        // Reserva o estoque de todos os itens com um único comando assíncrono.
+        // O pagamento só é solicitado pelo StockReservationConsumer depois da reserva confirmada.
+        requestStockReservation(savedOrder);
+        publishOrderPlaced(savedOrder);
 
         return mapToOrderResponse(savedOrder);
     }
 
+    @Override
+    @Transactional
+    public OrderResponse createSimpleOrder(OrderRequest orderRequest) {
+        log.info("Criando pedido simplificado para usuário: {}", orderRequest.getUserId());
+        return placeOrder(orderRequest, fetchProducts(orderRequest.getItems()));
+    }
+
     @Override
     public OrderResponse getOrderById(Long id) {
         Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+                .orElseThrow(() -> new OrderNotFoundException(id));
         return mapToOrderResponse(order);
     }
 
@@ -221,9 +202,7 @@ public class OrderServiceImpl implements OrderService {
             
             log.info("Encontrados {} pedidos para o usuário {}", orders.size(), userId);
             
-            return orders.stream()
-                    .map(this::mapToOrderResponse)
-                    .collect(Collectors.toList());
+            return mapToOrderResponses(orders);
         } catch (IllegalArgumentException e) {
             log.error("Erro de validação ao buscar pedidos para o usuário {}: {}", userId, e.getMessage());
             throw e;
@@ -238,71 +217,159 @@ public class OrderServiceImpl implements OrderService {
         try {
             log.info("Buscando todos os pedidos");
             
-            List<Order> orders = orderRepository.findAll();
+            List<Order> orders = orderRepository.findAllWithItems();
             log.info("Encontrados {} pedidos no total", orders.size());
             
-            return orders.stream()
-                    .map(this::mapToOrderResponse)
-                    .collect(Collectors.toList());
+            return mapToOrderResponses(orders);
         } catch (Exception e) {
             log.error("Erro ao buscar todos os pedidos: {}", e.getMessage());
             throw new RuntimeException("Erro ao buscar todos os pedidos", e);
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersPage(OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                           String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime cursorCreatedAt = MAX_CREATED_AT;
+        long cursorId = Long.MAX_VALUE;
+
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido: " + cursor);
+            }
+        }
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<Order> orders = orderRepository.findPageBefore(statusFilter(status),
+                from != null ? from : MIN_CREATED_AT,
+                to != null ? to : MAX_CREATED_AT,
+                cursorCreatedAt, cursorId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            String rawCursor = last.getCreatedAt() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.info("Página de pedidos carregada: {} pedidos, hasMore: {}", orders.size(), hasMore);
+
+        return OrderPageResponse.builder()
+                .orders(mapToOrderResponses(orders))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(OrderStatus status, LocalDateTime from, LocalDateTime to,
+                             Consumer<OrderResponse> consumer) {
+        log.info("Iniciando streaming de pedidos - status: {}, de: {}, até: {}", status, from, to);
+
+        List<Order> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        int total = 0;
+
+        try (Stream<Order> orders = orderRepository.streamByFilters(statusFilter(status),
+                from != null ? from : MIN_CREATED_AT,
+                to != null ? to : MAX_CREATED_AT)) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    total += flushChunk(chunk, consumer);
+                }
+            }
+            total += flushChunk(chunk, consumer);
+        }
+
+        log.info("Streaming de pedidos finalizado: {} pedidos enviados", total);
+    }
+
+    // Mapeia o bloco com uma única busca de produtos e libera as entidades do contexto de persistência
+    private int flushChunk(List<Order> chunk, Consumer<OrderResponse> consumer) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        mapToOrderResponses(chunk).forEach(consumer);
+        int flushed = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return flushed;
+    }
+
+    private List<OrderStatus> statusFilter(OrderStatus status) {
+        return status != null ? List.of(status) : Arrays.asList(OrderStatus.values());
+    }
+
     @Override
     @Transactional
     public OrderResponse updateOrderStatus(Long id, OrderStatus status) {
         log.info("=== INICIO updateOrderStatus - id: {}, status: {} ===", id, status);
         
         Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+                .orElseThrow(() -> new OrderNotFoundException(id));
         
         OrderStatus oldStatus = order.getStatus();
         log.info("Status anterior: {}, novo status: {}", oldStatus, status);
         
         order.setStatus(status);
         
+        // Cancelamento manual compensa o que já foi feito: devolve o estoque e reembolsa se já pago
+        if (status == OrderStatus.CANCELLED && oldStatus != OrderStatus.CANCELLED) {
+            orderSagaCommands.releaseStock(order);
+            if (order.getPaymentId() != null) {
+                orderSagaCommands.refundPayment(order);
+            }
+        }
+        
         Order updatedOrder = orderRepository.save(order);
         log.info("Pedido salvo com sucesso");
         
-        try {
-            String eventType = getEventTypeForStatus(status);
-            log.info("EventType gerado: {}", eventType);
-            
-            Map<String, Object> orderStatusEvent = new HashMap<>();
-            orderStatusEvent.put("eventType", eventType);
-            orderStatusEvent.put("orderId", updatedOrder.getId());
-            orderStatusEvent.put("userId", updatedOrder.getUserId());
-            orderStatusEvent.put("oldStatus", oldStatus.name());
-            orderStatusEvent.put("newStatus", status.name());
-            orderStatusEvent.put("timestamp", LocalDateTime.now().toString());
-            
-            String orderStatusJson = objectMapper.writeValueAsString(orderStatusEvent);
-            log.info("JSON gerado: {}", orderStatusJson);
-            
-            log.info("Enviando mensagem para exchange: {}, routing key: {}", ORDER_NOTIFICATION_EXCHANGE, ORDER_NOTIFICATION_ROUTING_KEY);
-            
-            rabbitTemplate.convertAndSend(
-                ORDER_NOTIFICATION_EXCHANGE, 
-                ORDER_NOTIFICATION_ROUTING_KEY, 
-                orderStatusJson
-            );
-            
-            log.info("Notificação de alteração de status enviada para o pedido: {}, de {} para {}", 
-                updatedOrder.getId(), oldStatus, status);
-            
-            // Verificação para entrega
-            boolean isDeliveryUpdate = isDeliveryStatusUpdate(status);
-            log.info("É atualização de entrega? {}", isDeliveryUpdate);
-                
-            if (isDeliveryUpdate) {
-                log.info("Enviando notificação de entrega...");
-                sendDeliveryNotification(updatedOrder, eventType);
-            }
+        String eventType = getEventTypeForStatus(status);
+        log.info("EventType gerado: {}", eventType);
+        
+        Map<String, Object> orderStatusEvent = new HashMap<>();
+        orderStatusEvent.put("eventType", eventType);
+        orderStatusEvent.put("orderId", updatedOrder.getId());
+        orderStatusEvent.put("userId", updatedOrder.getUserId());
+        orderStatusEvent.put("oldStatus", oldStatus.name());
+        orderStatusEvent.put("newStatus", status.name());
+        orderStatusEvent.put("timestamp", LocalDateTime.now().toString());
+        
+        String orderStatusJson = toJson(orderStatusEvent);
+        log.info("JSON gerado: {}", orderStatusJson);
+        
+        log.info("Enviando mensagem para exchange: {}, routing key: {}", ORDER_NOTIFICATION_EXCHANGE, ORDER_NOTIFICATION_ROUTING_KEY);
+        
+        outboxPublisher.publish(
+            ORDER_NOTIFICATION_EXCHANGE, 
+            ORDER_NOTIFICATION_ROUTING_KEY, 
+            orderStatusJson
+        );
+        
+        log.info("Notificação de alteração de status enviada para o pedido: {}, de {} para {}", 
+            updatedOrder.getId(), oldStatus, status);
+        
+        // Verificação para entrega
+        boolean isDeliveryUpdate = isDeliveryStatusUpdate(status);
+        log.info("É atualização de entrega? {}", isDeliveryUpdate);
             
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação de alteração de status: {}", e.getMessage(), e);
+        if (isDeliveryUpdate) {
+            log.info("Enviando notificação de entrega...");
+            sendDeliveryNotification(updatedOrder, eventType);
         }
         
         log.info("=== FIM updateOrderStatus ===");
@@ -334,45 +401,40 @@ public class OrderServiceImpl implements OrderService {
     }
     
     private void sendDeliveryNotification(Order order, String eventType) {
-        try {
-            log.info("=== INICIO sendDeliveryNotification - eventType: {}, orderId: {}, userId: {} ===", 
-                    eventType, order.getId(), order.getUserId());
-            
-            String title = getDeliveryNotificationTitle(eventType);
-            String message = getDeliveryNotificationMessage(eventType, order);
-            
-            log.info("Título: {}", title);
-            log.info("Mensagem: {}", message);
-            
-            Map<String, Object> deliveryNotification = new HashMap<>();
-            deliveryNotification.put("userId", Long.valueOf(order.getUserId()));
-            deliveryNotification.put("orderId", order.getId());
-            deliveryNotification.put("eventType", eventType);
-            deliveryNotification.put("title", title);
-            deliveryNotification.put("message", message);
-            deliveryNotification.put("status", order.getStatus().name());
-            deliveryNotification.put("trackingNumber", order.getTrackingNumber());
-            deliveryNotification.put("timestamp", LocalDateTime.now().toString());
-            
-            String deliveryNotificationJson = objectMapper.writeValueAsString(deliveryNotification);
-            log.info("JSON de entrega gerado: {}", deliveryNotificationJson);
-            
-            log.info("Enviando notificação de entrega para exchange: {}, routing key: {}", 
-                    ORDER_NOTIFICATION_EXCHANGE, ORDER_NOTIFICATION_ROUTING_KEY);
-            
-            rabbitTemplate.convertAndSend(
-                ORDER_NOTIFICATION_EXCHANGE,
-                ORDER_NOTIFICATION_ROUTING_KEY,
-                deliveryNotificationJson
-            );
-            
-            log.info("Notificação de entrega enviada para usuário {}: {} - pedido: {}", 
-                    order.getUserId(), eventType, order.getId());
-            log.info("=== FIM sendDeliveryNotification ===");
-                    
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação de entrega: {}", e.getMessage(), e);
-        }
+        log.info("=== INICIO sendDeliveryNotification - eventType: {}, orderId: {}, userId: {} ===", 
+                eventType, order.getId(), order.getUserId());
+        
+        String title = getDeliveryNotificationTitle(eventType);
+        String message = getDeliveryNotificationMessage(eventType, order);
+        
+        log.info("Título: {}", title);
+        log.info("Mensagem: {}", message);
+        
+        Map<String, Object> deliveryNotification = new HashMap<>();
+        deliveryNotification.put("userId", Long.valueOf(order.getUserId()));
+        deliveryNotification.put("orderId", order.getId());
+        deliveryNotification.put("eventType", eventType);
+        deliveryNotification.put("title", title);
+        deliveryNotification.put("message", message);
+        deliveryNotification.put("status", order.getStatus().name());
+        deliveryNotification.put("trackingNumber", order.getTrackingNumber());
+        deliveryNotification.put("timestamp", LocalDateTime.now().toString());
+        
+        String deliveryNotificationJson = toJson(deliveryNotification);
+        log.info("JSON de entrega gerado: {}", deliveryNotificationJson);
+        
+        log.info("Enviando notificação de entrega para exchange: {}, routing key: {}", 
+                ORDER_NOTIFICATION_EXCHANGE, ORDER_NOTIFICATION_ROUTING_KEY);
+        
+        outboxPublisher.publish(
+            ORDER_NOTIFICATION_EXCHANGE,
+            ORDER_NOTIFICATION_ROUTING_KEY,
+            deliveryNotificationJson
+        );
+        
+        log.info("Notificação de entrega enviada para usuário {}: {} - pedido: {}", 
+                order.getUserId(), eventType, order.getId());
+        log.info("=== FIM sendDeliveryNotification ===");
     }
     
     private String getDeliveryNotificationTitle(String eventType) {
@@ -408,41 +470,36 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderResponse updateTrackingInfo(Long id, String trackingNumber) {
         Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+                .orElseThrow(() -> new OrderNotFoundException(id));
         
         order.setTrackingNumber(trackingNumber);
         order.setStatus(OrderStatus.SHIPPED);
         
         Order updatedOrder = orderRepository.save(order);
         
-        try {
-            String title = "Código de Rastreamento Disponível";
-            String message = String.format("Seu pedido #%d agora tem código de rastreamento: %s. Acompanhe sua entrega!", 
-                    order.getId(), trackingNumber);
-            
-            Map<String, Object> trackingNotification = new HashMap<>();
-            trackingNotification.put("userId", Long.valueOf(order.getUserId()));
-            trackingNotification.put("orderId", order.getId());
-            trackingNotification.put("eventType", "TRACKING_ADDED");
-            trackingNotification.put("title", title);
-            trackingNotification.put("message", message);
-            trackingNotification.put("trackingNumber", trackingNumber);
-            trackingNotification.put("timestamp", LocalDateTime.now().toString());
-            
-            String trackingNotificationJson = objectMapper.writeValueAsString(trackingNotification);
-            
-            rabbitTemplate.convertAndSend(
-                ORDER_NOTIFICATION_EXCHANGE,
-                ORDER_NOTIFICATION_ROUTING_KEY,
-                trackingNotificationJson
-            );
-            
-            log.info("Notificação de código de rastreamento enviada para usuário {}: {} - pedido: {}", 
-                    order.getUserId(), trackingNumber, order.getId());
-                    
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação de código de rastreamento: {}", e.getMessage());
-        }
+        String title = "Código de Rastreamento Disponível";
+        String message = String.format("Seu pedido #%d agora tem código de rastreamento: %s. Acompanhe sua entrega!", 
+                order.getId(), trackingNumber);
+        
+        Map<String, Object> trackingNotification = new HashMap<>();
+        trackingNotification.put("userId", Long.valueOf(order.getUserId()));
+        trackingNotification.put("orderId", order.getId());
+        trackingNotification.put("eventType", "TRACKING_ADDED");
+        trackingNotification.put("title", title);
+        trackingNotification.put("message", message);
+        trackingNotification.put("trackingNumber", trackingNumber);
+        trackingNotification.put("timestamp", LocalDateTime.now().toString());
+        
+        String trackingNotificationJson = toJson(trackingNotification);
+        
+        outboxPublisher.publish(
+            ORDER_NOTIFICATION_EXCHANGE,
+            ORDER_NOTIFICATION_ROUTING_KEY,
+            trackingNotificationJson
+        );
+        
+        log.info("Notificação de código de rastreamento enviada para usuário {}: {} - pedido: {}", 
+                order.getUserId(), trackingNumber, order.getId());
         
         return mapToOrderResponse(updatedOrder);
     }
@@ -453,39 +510,142 @@ public class OrderServiceImpl implements OrderService {
         orderRepository.deleteById(id);
     }
 
+    private void requestStockReservation(Order order) {
+        List<StockItemDto> items = order.getItems().stream()
+                .map(item -> StockItemDto.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+
+        ReserveStockCommand command = ReserveStockCommand.builder()
+                .orderId(order.getId())
+                .items(items)
+                .build();
+
+        outboxPublisher.publish(STOCK_EXCHANGE, STOCK_RESERVE_ROUTING_KEY, command);
+        log.info("Reserva de estoque solicitada para o pedido {} com {} itens", order.getId(), items.size());
+    }
+
+    // Consumido pelo recommendation-engine para atualizar o modelo de co-ocorrência de produtos
+    private void publishOrderPlaced(Order order) {
+        OrderPlacedEvent event = OrderPlacedEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .productIds(order.getItems().stream()
+                        .map(OrderItem::getProductId)
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .createdAt(order.getCreatedAt())
+                .build();
+
+        outboxPublisher.publish(ORDER_EXCHANGE, ORDER_PLACED_ROUTING_KEY, event);
+    }
+
+    private Map<String, ProductDto> fetchProducts(List<OrderItemRequest> items) {
+        List<String> productIds = items.stream()
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        log.info("Buscando {} produtos em lote para o pedido", productIds.size());
+        Map<String, ProductDto> products = productClient.getProducts(productIds).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity(), (first, second) -> first));
+
+        for (String productId : productIds) {
+            ProductDto product = products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Produto não encontrado com id: " + productId);
+            }
+            // Produto do fallback tem preço zero; o pedido não pode ser gravado nem cobrado com ele
+            if (product.isUnavailable()) {
+                throw new ProductUnavailableException("Catálogo de produtos indisponível, produto: " + productId);
+            }
+        }
+
+        return products;
+    }
+
     private void sendOrderNotification(String userId, String action, String message) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("userId", Long.valueOf(userId));
+        notification.put("action", action);
+        notification.put("message", message);
+        notification.put("timestamp", LocalDateTime.now().toString());
+
+        outboxPublisher.publish(
+            ORDER_NOTIFICATION_EXCHANGE,
+            ORDER_NOTIFICATION_ROUTING_KEY,
+            notification
+        );
+
+        log.info("Notificação de pedido enviada para usuário {}: {}", userId, action);
+    }
+
+    // Falha de serialização derruba a transação junto com o evento, como qualquer erro do outbox
+    private String toJson(Map<String, Object> event) {
         try {
-            Map<String, Object> notification = new HashMap<>();
-            notification.put("userId", Long.valueOf(userId));
-            notification.put("action", action);
-            notification.put("message", message);
-            notification.put("timestamp", LocalDateTime.now().toString());
-
-            rabbitTemplate.convertAndSend(
-                ORDER_NOTIFICATION_EXCHANGE,
-                ORDER_NOTIFICATION_ROUTING_KEY,
-                notification
-            );
-
-            log.info("Notificação de pedido enviada para usuário {}: {}", userId, action);
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação de pedido: {}", e.getMessage());
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    private List<OrderResponse> mapToOrderResponses(List<Order> orders) {
+        Map<String, ProductDto> productDetails = resolveProductDetails(orders);
+        return orders.stream()
+                .map(order -> mapToOrderResponse(order, productDetails))
+                .collect(Collectors.toList());
+    }
+
     private OrderResponse mapToOrderResponse(Order order) {
+        return mapToOrderResponse(order, resolveProductDetails(List.of(order)));
+    }
+
+    // Busca em lote os produtos distintos de todos os pedidos (uma chamada por lote, não por item).
+    // Com o enriquecimento desabilitado, os itens usam o snapshot salvo no pedido.
+    private Map<String, ProductDto> resolveProductDetails(List<Order> orders) {
+        Map<String, ProductDto> productDetails = new HashMap<>();
+        if (!productEnrichmentEnabled) {
+            return productDetails;
+        }
+
+        List<String> productIds = orders.stream()
+                .filter(order -> order.getItems() != null)
+                .flatMap(order -> order.getItems().stream())
+                .map(OrderItem::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        for (int start = 0; start < productIds.size(); start += PRODUCT_BATCH_SIZE) {
+            List<String> batch = productIds.subList(start, Math.min(start + PRODUCT_BATCH_SIZE, productIds.size()));
+            try {
+                // Placeholders do circuit breaker ficam de fora: o item cai no snapshot gravado no pedido
+                productClient.getProducts(batch).stream()
+                        .filter(product -> !product.isUnavailable())
+                        .forEach(product -> productDetails.put(product.getId(), product));
+            } catch (Exception e) {
+                log.warn("Erro ao buscar detalhes de {} produtos: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        return productDetails;
+    }
+
+    private ProductDto snapshotProduct(OrderItem item) {
+        return ProductDto.builder()
+                .id(item.getProductId())
+                .name(item.getProductName())
+                .price(item.getPrice())
+                .build();
+    }
+
+    private OrderResponse mapToOrderResponse(Order order, Map<String, ProductDto> productDetailsById) {
         List<OrderItemResponse> orderItemResponses = order.getItems().stream()
                 .map(item -> {
-                    ProductDto productDetails = null;
-                    try {
-                        productDetails = productClient.getProduct(item.getProductId());
-                    } catch (Exception e) {
-                        log.warn("Erro ao buscar detalhes do produto {}: {}", item.getProductId(), e.getMessage());
-                        productDetails = ProductDto.builder()
-                                .id(item.getProductId())
-                                .name(item.getProductName())
-                                .price(item.getPrice())
-                                .build();
+                    ProductDto productDetails = productDetailsById.get(item.getProductId());
+                    if (productDetails == null) {
+                        productDetails = snapshotProduct(item);
                     }
                     
                     return OrderItemResponse.builder()
@@ -0,0 +1,97 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garante que listar pedidos com itens não volta a gerar um SELECT por pedido (N+1)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecommerce.order.repository.StatementCounter",
+        "spring.jpa.show-sql=false"
+})
+class OrderRepositoryTest {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .userId("user-1")
+                    .deliveryAddress("Rua A, " + i)
+                    .paymentMethod(PaymentMethod.values()[0])
+                    .totalAmount(new BigDecimal("30.00"))
+                    .items(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .productId("p-" + j)
+                        .productName("Produto " + j)
+                        .quantity(1)
+                        .price(new BigDecimal("10.00"))
+                        .subtotal(new BigDecimal("10.00"))
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        StatementCounter.reset();
+    }
+
+    @Test
+    void findByUserIdLoadsItemsInASingleStatement() {
+        List<Order> orders = orderRepository.findByUserId("user-1");
+
+        assertThat(totalItems(orders)).isEqualTo(ORDERS * ITEMS_PER_ORDER);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllWithItemsLoadsItemsInASingleStatement() {
+        List<Order> orders = orderRepository.findAllWithItems();
+
+        assertThat(totalItems(orders)).isEqualTo(ORDERS * ITEMS_PER_ORDER);
+        assertThat(StatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPageBatchFetchesItemsOfTheWholePage() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> page = orderRepository.findPageBefore(EnumSet.of(OrderStatus.PENDING),
+                now.minusDays(1), now.plusDays(1), now.plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 10));
+
+        assertThat(page).hasSize(10);
+        assertThat(totalItems(page)).isEqualTo(10 * ITEMS_PER_ORDER);
+        // Uma consulta para a página e uma para os itens de todos os pedidos dela
+        assertThat(StatementCounter.count()).isEqualTo(2);
+    }
+
+    private int totalItems(List<Order> orders) {
+        return orders.stream().mapToInt(order -> order.getItems().size()).sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.order.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Conta os comandos SQL preparados pelo Hibernate; registrado via hibernate.session_factory.statement_inspector
+public class StatementCounter implements StatementInspector {
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        return sql;
+    }
+
+    static void reset() {
+        COUNT.set(0);
+    }
+
+    static int count() {
+        return COUNT.get();
+    }
+}
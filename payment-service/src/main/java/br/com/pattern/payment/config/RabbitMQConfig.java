@@ -24,6 +24,15 @@ public class RabbitMQConfig {
     public static final String PAYMENT_NOTIFICATION_QUEUE = "payment.notification.queue";
     public static final String PAYMENT_NOTIFICATION_ROUTING_KEY = "payment.notification.key";
 
+    // Reembolsos solicitados pelo order-service ao cancelar um pedido já pago
+    public static final String PAYMENT_REFUND_QUEUE = "payment.refund.queue";
+    public static final String PAYMENT_REFUND_ROUTING_KEY = "payment.refund.key";
+
+    // Eventos de pedido criado, publicados pelo order-service, que alimentam o modelo local de pedidos
+    public static final String ORDER_EXCHANGE = "order.exchange";
+    public static final String ORDER_PLACED_QUEUE = "payment.order.placed.queue";
+    public static final String ORDER_PLACED_ROUTING_KEY = "order.placed";
+
     @Bean
     public DirectExchange paymentExchange() {
         return new DirectExchange(PAYMENT_EXCHANGE);
@@ -65,6 +74,35 @@ public class RabbitMQConfig {
                 .with(PAYMENT_NOTIFICATION_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue paymentRefundQueue() {
+        return new Queue(PAYMENT_REFUND_QUEUE);
+    }
+
+    @Bean
+    public Binding paymentRefundBinding() {
+        return BindingBuilder.bind(paymentRefundQueue())
+                .to(paymentExchange())
+                .with(PAYMENT_REFUND_ROUTING_KEY);
+    }
+
+    @Bean
+    public TopicExchange orderExchange() {
+        return new TopicExchange(ORDER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue orderPlacedQueue() {
+        return new Queue(ORDER_PLACED_QUEUE);
+    }
+
+    @Bean
+    public Binding orderPlacedBinding() {
+        return BindingBuilder.bind(orderPlacedQueue())
+                .to(orderExchange())
+                .with(ORDER_PLACED_ROUTING_KEY);
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
@@ -18,14 +18,24 @@ public class PaymentController {
     private final PaymentService paymentService;
 
     @PostMapping
-    public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentResponse> processPayment(
+            @RequestBody PaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (request.getIdempotencyKey() == null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
         return ResponseEntity.ok(paymentService.processPayment(request));
     }
     
     @PostMapping("/direct")
-    public ResponseEntity<PaymentResponse> processDirectPayment(@RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentResponse> processDirectPayment(
+            @RequestBody PaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         // Para pagamentos diretos, garantimos que não há orderId
         request.setOrderId(null);
+        if (request.getIdempotencyKey() == null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
         return ResponseEntity.ok(paymentService.processPayment(request));
     }
     
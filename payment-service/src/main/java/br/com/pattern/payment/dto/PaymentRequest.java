@@ -11,4 +11,6 @@ public class PaymentRequest {
     private String paymentMethod;
     private String deliveryAddress;
     private String items;
+    // Chave do cliente; junto com o orderId identifica a mesma tentativa de pagamento
+    private String idempotencyKey;
 } 
\ No newline at end of file
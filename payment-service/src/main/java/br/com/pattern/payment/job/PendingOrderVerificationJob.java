@@ -0,0 +1,18 @@
+package br.com.pattern.payment.job;
+
+import br.com.pattern.payment.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PendingOrderVerificationJob {
+
+    private final PaymentService paymentService;
+
+    @Scheduled(fixedDelayString = "${payments.order-verification.interval-ms:15000}")
+    public void run() {
+        paymentService.verifyPendingPayments();
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.pattern.payment.messaging;
+
+import br.com.pattern.payment.config.RabbitMQConfig;
+import br.com.pattern.payment.service.PaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPlacedConsumer {
+
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+
+    // Só orderId e userId interessam; o restante do evento é do recommendation-engine
+    @RabbitListener(queues = RabbitMQConfig.ORDER_PLACED_QUEUE)
+    public void consumeOrderPlaced(Message message) throws IOException {
+        JsonNode event = objectMapper.readTree(message.getBody());
+        if (!event.hasNonNull("orderId")) {
+            log.warn("Evento order.placed sem orderId ignorado");
+            return;
+        }
+        String orderId = event.get("orderId").asText();
+        String userId = event.hasNonNull("userId") ? event.get("userId").asText() : null;
+        log.info("Pedido {} registrado no modelo local de pedidos", orderId);
+        paymentService.registerOrder(orderId, userId);
+    }
+}
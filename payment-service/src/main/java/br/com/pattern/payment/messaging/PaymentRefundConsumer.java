@@ -0,0 +1,39 @@
+package br.com.pattern.payment.messaging;
+
+import br.com.pattern.payment.config.RabbitMQConfig;
+import br.com.pattern.payment.service.PaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Compensação do order-service: estorna o pagamento de um pedido cancelado depois de aprovado
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRefundConsumer {
+
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+
+    @RabbitListener(queues = RabbitMQConfig.PAYMENT_REFUND_QUEUE)
+    public void consumeRefund(Message message) throws IOException {
+        JsonNode command = objectMapper.readTree(message.getBody());
+        if (!command.hasNonNull("orderId")) {
+            log.warn("Comando de reembolso sem orderId ignorado");
+            return;
+        }
+        String orderId = command.get("orderId").asText();
+        try {
+            paymentService.refundPayment(orderId);
+        } catch (Exception e) {
+            // Pagamento inexistente ou já estornado: nada a compensar
+            log.warn("Reembolso do pedido {} não aplicado: {}", orderId, e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -21,7 +23,8 @@ public class PaymentRequestConsumer {
     private final ObjectMapper objectMapper;
 
     @RabbitListener(queues = RabbitMQConfig.PAYMENT_QUEUE)
-    public void consumePaymentRequest(String paymentRequestJson) {
+    public void consumePaymentRequest(String paymentRequestJson,
+                                      @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
         log.info("Recebendo solicitação de pagamento: {}", paymentRequestJson);
         try {
             JsonNode paymentNode = objectMapper.readTree(paymentRequestJson);
@@ -47,6 +50,13 @@ public class PaymentRequestConsumer {
                 paymentRequest.setPaymentMethod(paymentNode.get("paymentMethod").asText());
             }
             
+            // Sem chave no corpo, o id da mensagem (estável entre reentregas do outbox) faz o papel de chave
+            if (paymentNode.hasNonNull("idempotencyKey")) {
+                paymentRequest.setIdempotencyKey(paymentNode.get("idempotencyKey").asText());
+            } else {
+                paymentRequest.setIdempotencyKey(messageId);
+            }
+            
             log.info("Processando pagamento para o pedido: {}", paymentRequest.getOrderId());
             paymentService.processPayment(paymentRequest);
             log.info("Pagamento processado com sucesso para o pedido: {}", paymentRequest.getOrderId());
@@ -0,0 +1,21 @@
+package br.com.pattern.payment.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Modelo de leitura local dos pedidos existentes, alimentado pelos eventos order.placed
+@Data
+@Entity
+@Table(name = "known_orders")
+public class KnownOrder {
+    @Id
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "registered_at", nullable = false)
+    private LocalDateTime registeredAt;
+}
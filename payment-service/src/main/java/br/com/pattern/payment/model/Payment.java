@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = @UniqueConstraint(name = "uk_payments_idempotency_key", columnNames = "idempotency_key"))
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +16,10 @@ public class Payment {
     @Column(nullable = false)
     private String orderId;
 
+    // orderId + chave do cliente; nulo apenas em pagamentos diretos sem chave
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
     @Column(name = "user_id", nullable = false)
     private String userId;
 
@@ -38,6 +42,14 @@ public class Payment {
     @Column(name = "error_message")
     private String errorMessage;
 
+    // Consultas ao order-service sem resposta conclusiva enquanto o pagamento aguarda o pedido
+    @Column(name = "verification_attempts")
+    private Integer verificationAttempts;
+
+    // Preenchido depois que o resultado chegou ao broker; nulo em pagamento aprovado indica publicação pendente
+    @Column(name = "result_published_at")
+    private LocalDateTime resultPublishedAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,9 @@
+package br.com.pattern.payment.repository;
+
+import br.com.pattern.payment.model.KnownOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KnownOrderRepository extends JpaRepository<KnownOrder, String> {
+}
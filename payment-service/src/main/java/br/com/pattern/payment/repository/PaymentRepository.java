@@ -1,10 +1,40 @@
 package br.com.pattern.payment.repository;
 
 import br.com.pattern.payment.model.Payment;
+import br.com.pattern.payment.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Payment findByOrderId(String orderId);
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    List<Payment> findByOrderIdAndStatus(String orderId, PaymentStatus status);
+    List<Payment> findByStatusAndCreatedAtBefore(PaymentStatus status, LocalDateTime createdAt);
+
+    // Transição condicional: só quem muda o status publica o resultado
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :to, p.errorMessage = :errorMessage, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status = :from")
+    int transition(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to,
+                   @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.verificationAttempts = COALESCE(p.verificationAttempts, 0) + 1 WHERE p.id = :id")
+    int incrementVerificationAttempts(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.resultPublishedAt = :now WHERE p.id = :id")
+    int markResultPublished(@Param("id") Long id, @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
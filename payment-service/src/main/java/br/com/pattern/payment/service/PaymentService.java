@@ -7,4 +7,6 @@ public interface PaymentService {
     PaymentResponse processPayment(PaymentRequest request);
     PaymentResponse getPaymentByOrderId(String orderId);
     PaymentResponse refundPayment(String orderId);
+    void registerOrder(String orderId, String userId);
+    void verifyPendingPayments();
 } 
\ No newline at end of file
@@ -3,13 +3,17 @@ package br.com.pattern.payment.service.impl;
 import br.com.pattern.payment.config.RabbitMQConfig;
 import br.com.pattern.payment.dto.PaymentRequest;
 import br.com.pattern.payment.dto.PaymentResponse;
+import br.com.pattern.payment.model.KnownOrder;
 import br.com.pattern.payment.model.Payment;
 import br.com.pattern.payment.model.PaymentStatus;
+import br.com.pattern.payment.repository.KnownOrderRepository;
 import br.com.pattern.payment.repository.PaymentRepository;
 import br.com.pattern.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -19,6 +23,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -29,38 +35,56 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final RabbitTemplate rabbitTemplate;
     private final RestTemplate restTemplate;
+    private final KnownOrderRepository knownOrderRepository;
+
+    @Value("${payments.order-verification.grace-seconds:30}")
+    private long orderVerificationGraceSeconds;
+
+    @Value("${payments.order-verification.max-attempts:20}")
+    private int orderVerificationMaxAttempts;
+
+    @Value("${payments.order-service-url:http://order-service:8082}")
+    private String orderServiceUrl;
 
     @Override
     public PaymentResponse processPayment(PaymentRequest request) {
         log.info("Processando pagamento para o pedido: {}", request.getOrderId());
         
+        // Requisição repetida devolve o pagamento gravado, sem nova escrita nem novos eventos
+        String idempotencyKey = idempotencyKey(request);
+        if (idempotencyKey != null) {
+            Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                log.info("Pagamento {} já processado para a chave {}", existing.get().getId(), idempotencyKey);
+                PaymentResponse response = mapToResponse(existing.get());
+                // Falha ou queda entre a aprovação e a publicação: a reentrega completa o envio do resultado
+                if (existing.get().getStatus() == PaymentStatus.APPROVED && existing.get().getResultPublishedAt() == null) {
+                    log.info("Resultado do pagamento {} ainda não publicado, reenviando", existing.get().getId());
+                    publishPaymentResult(existing.get().getId(), response);
+                }
+                return response;
+            }
+        }
+        
         String orderId = request.getOrderId();
         boolean shouldCreateOrder = false;
+        boolean awaitingOrder = false;
+        boolean invalidOrder = false;
         
         // Verifica se é necessário criar um pedido primeiro
         if (orderId == null || orderId.isEmpty()) {
             // Caso 1: OrderId não foi fornecido, sempre cria um novo pedido
             shouldCreateOrder = true;
             log.info("OrderId não fornecido. Criando novo pedido.");
-        } else {
-            // Caso 2: OrderId foi fornecido, verifica se existe
-            try {
-                // Tentativa de verificar se o pedido existe
-                String orderCheckUrl = "http://order-service:8082/api/orders/" + orderId;
-                restTemplate.getForObject(orderCheckUrl, String.class);
-                log.info("Pedido {} encontrado. Processando pagamento.", orderId);
-            } catch (HttpClientErrorException e) {
-                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                    // Pedido não existe, criar um novo
-                    log.warn("Pedido {} não encontrado. Criando novo pedido.", orderId);
-                    shouldCreateOrder = true;
-                } else {
-                    log.error("Erro ao verificar pedido: {}", e.getMessage());
-                }
-            } catch (Exception e) {
-                log.warn("Erro ao verificar pedido: {}. Criando novo pedido.", e.getMessage());
-                shouldCreateOrder = true;
-            }
+        } else if (!isOrderServiceId(orderId)) {
+            // IDs temporários ou não numéricos nunca existirão no order-service: falha sem aguardar
+            invalidOrder = true;
+            log.warn("Pedido {} não é um identificador do order-service", orderId);
+        } else if (!knownOrderRepository.existsById(orderId)) {
+            // Caso 2: pedido ainda não chegou ao modelo local; o pagamento fica PENDING até o evento
+            // order.placed ou a verificação assíncrona confirmarem o pedido
+            awaitingOrder = true;
+            log.info("Pedido {} ainda não conhecido localmente. Pagamento aguardará a confirmação do pedido.", orderId);
         }
         
         if (shouldCreateOrder) {
@@ -73,6 +97,8 @@ public class PaymentServiceImpl implements PaymentService {
                 // Fallback: se falhar ao criar o pedido, gera um ID temporário
                 log.warn("Erro ao criar pedido: {}. Usando fallback com ID temporário", e.getMessage());
                 orderId = "temp-" + UUID.randomUUID().toString();
+                // Sem pedido real não há o que cobrar: o pagamento é registrado já como falho
+                invalidOrder = true;
             }
         }
         
@@ -88,17 +114,129 @@ public class PaymentServiceImpl implements PaymentService {
         // Definir userId com o valor do request, ou usar "anonymous" como fallback
         payment.setUserId(request.getUserId() != null ? request.getUserId() : "anonymous");
 
-        payment = paymentRepository.save(payment);
+        payment.setIdempotencyKey(idempotencyKey);
+
+        try {
+            payment = paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException e) {
+            // Entrega concorrente com a mesma chave gravou primeiro; a restrição única decide a corrida
+            log.info("Pagamento concorrente já registrado para a chave {}", idempotencyKey);
+            return paymentRepository.findByIdempotencyKey(idempotencyKey)
+                    .map(this::mapToResponse)
+                    .orElseThrow(() -> e);
+        }
         log.info("Pagamento salvo com status PENDING: {}", payment.getId());
 
+        if (invalidOrder) {
+            failPending(payment, "Pedido inválido: " + orderId);
+            return mapToResponse(payment);
+        }
+
+        if (awaitingOrder) {
+            return mapToResponse(payment);
+        }
+
         // Simula processamento do pagamento
         payment.setStatus(PaymentStatus.APPROVED);
         payment = paymentRepository.save(payment);
         log.info("Pagamento atualizado para status APPROVED: {}", payment.getId());
 
-        // Constrói a resposta de pagamento
         PaymentResponse response = mapToResponse(payment);
-        
+        publishPaymentResult(payment.getId(), response);
+        return response;
+    }
+
+    @Override
+    public void registerOrder(String orderId, String userId) {
+        if (!knownOrderRepository.existsById(orderId)) {
+            KnownOrder knownOrder = new KnownOrder();
+            knownOrder.setOrderId(orderId);
+            knownOrder.setUserId(userId);
+            knownOrder.setRegisteredAt(LocalDateTime.now());
+            try {
+                knownOrderRepository.save(knownOrder);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Pedido {} registrado concorrentemente", orderId);
+            }
+        }
+
+        for (Payment payment : paymentRepository.findByOrderIdAndStatus(orderId, PaymentStatus.PENDING)) {
+            approvePending(payment);
+        }
+    }
+
+    // Pagamentos que seguem PENDING após o período de carência: confirma o pedido direto no order-service,
+    // fora do caminho da requisição de pagamento
+    @Override
+    public void verifyPendingPayments() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(orderVerificationGraceSeconds);
+        List<Payment> pending = paymentRepository.findByStatusAndCreatedAtBefore(PaymentStatus.PENDING, cutoff);
+        for (Payment payment : pending) {
+            String orderId = payment.getOrderId();
+            if (!isOrderServiceId(orderId)) {
+                failPending(payment, "Pedido inválido: " + orderId);
+                continue;
+            }
+            if (knownOrderRepository.existsById(orderId)) {
+                approvePending(payment);
+                continue;
+            }
+            try {
+                restTemplate.getForObject(orderServiceUrl + "/api/orders/" + orderId, String.class);
+                log.info("Pedido {} confirmado pelo order-service", orderId);
+                registerOrder(orderId, payment.getUserId());
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    failPending(payment, "Pedido não encontrado: " + orderId);
+                } else {
+                    log.error("Erro ao verificar pedido {}: {}", orderId, e.getMessage());
+                    recordVerificationAttempt(payment, e.getMessage());
+                }
+            } catch (Exception e) {
+                // order-service indisponível: tenta de novo na próxima execução, até o limite de tentativas
+                log.warn("Não foi possível verificar o pedido {}: {}", orderId, e.getMessage());
+                recordVerificationAttempt(payment, e.getMessage());
+            }
+        }
+    }
+
+    private void recordVerificationAttempt(Payment payment, String error) {
+        paymentRepository.incrementVerificationAttempts(payment.getId());
+        int attempts = (payment.getVerificationAttempts() != null ? payment.getVerificationAttempts() : 0) + 1;
+        if (attempts >= orderVerificationMaxAttempts) {
+            failPending(payment, "Pedido " + payment.getOrderId() + " não verificado após " + attempts
+                    + " tentativas: " + error);
+        }
+    }
+
+    // O order-service usa IDs numéricos; "temp-..." é o fallback local de createOrderViaAPI
+    private boolean isOrderServiceId(String orderId) {
+        return orderId != null && !orderId.isEmpty() && orderId.chars().allMatch(Character::isDigit);
+    }
+
+    private void approvePending(Payment payment) {
+        if (paymentRepository.transition(payment.getId(), PaymentStatus.PENDING, PaymentStatus.APPROVED,
+                null, LocalDateTime.now()) == 0) {
+            return;
+        }
+        payment.setStatus(PaymentStatus.APPROVED);
+        log.info("Pagamento {} aprovado após confirmação do pedido {}", payment.getId(), payment.getOrderId());
+        publishPaymentResult(payment.getId(), mapToResponse(payment));
+    }
+
+    private void failPending(Payment payment, String errorMessage) {
+        if (paymentRepository.transition(payment.getId(), PaymentStatus.PENDING, PaymentStatus.FAILED,
+                errorMessage, LocalDateTime.now()) == 0) {
+            return;
+        }
+        payment.setStatus(PaymentStatus.FAILED);
+        payment.setErrorMessage(errorMessage);
+        log.warn("Pagamento {} falhou: {}", payment.getId(), errorMessage);
+        // O order-service só libera o estoque ao receber o FAILED na fila de resultados
+        publishPaymentResult(payment.getId(), mapToResponse(payment));
+    }
+
+    private void publishPaymentResult(Long paymentId, PaymentResponse response) {
         try {
             // Envia mensagem para o order-service
             log.info("Enviando resultado do pagamento para o order-service - exchange: {}, routing key: {}", 
@@ -119,12 +257,21 @@ public class PaymentServiceImpl implements PaymentService {
                     RabbitMQConfig.PAYMENT_RESULT_EXCHANGE, 
                     RabbitMQConfig.PAYMENT_NOTIFICATION_ROUTING_KEY, 
                     response);
+
+            paymentRepository.markResultPublished(paymentId, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Erro ao enviar resultado do pagamento para o RabbitMQ: {}", e.getMessage());
             // Continua o fluxo mesmo com erro no envio para o RabbitMQ
         }
-
-        return response;
+    }
+    
+    private String idempotencyKey(PaymentRequest request) {
+        String clientKey = request.getIdempotencyKey();
+        if (clientKey == null || clientKey.isBlank()) {
+            return null;
+        }
+        String orderId = request.getOrderId() != null && !request.getOrderId().isEmpty() ? request.getOrderId() : "direct";
+        return orderId + ":" + clientKey;
     }
     
     private String createOrderViaAPI(PaymentRequest request) {
@@ -141,8 +288,7 @@ public class PaymentServiceImpl implements PaymentService {
             HttpEntity<String> entity = new HttpEntity<>(orderRequestJson, headers);
             
             // Enviar requisição para o serviço de pedidos
-            String orderServiceUrl = "http://order-service:8082/api/orders";
-            String response = restTemplate.postForObject(orderServiceUrl, entity, String.class);
+            String response = restTemplate.postForObject(orderServiceUrl + "/api/orders", entity, String.class);
             
             log.info("Pedido criado com sucesso: {}", response);
             
@@ -0,0 +1,130 @@
+package br.com.pattern.payment.service.impl;
+
+import br.com.pattern.payment.config.RabbitMQConfig;
+import br.com.pattern.payment.dto.PaymentRequest;
+import br.com.pattern.payment.dto.PaymentResponse;
+import br.com.pattern.payment.model.Payment;
+import br.com.pattern.payment.model.PaymentStatus;
+import br.com.pattern.payment.repository.KnownOrderRepository;
+import br.com.pattern.payment.repository.PaymentRepository;
+import br.com.pattern.payment.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceImplTest {
+
+    private static final String ORDER_ID = "42";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private KnownOrderRepository knownOrderRepository;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        knownOrderRepository.deleteAll();
+        paymentService.registerOrder(ORDER_ID, "7");
+    }
+
+    @Test
+    void concurrentRedeliveriesOfTheSameRequestCreateASinglePayment() throws Exception {
+        int deliveries = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(deliveries);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<PaymentResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < deliveries; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.processPayment(request());
+                }));
+            }
+            start.countDown();
+
+            List<String> paymentIds = new ArrayList<>();
+            for (Future<PaymentResponse> future : futures) {
+                paymentIds.add(future.get(30, TimeUnit.SECONDS).getPaymentId());
+            }
+
+            List<Payment> payments = paymentRepository.findAll();
+            assertThat(payments).hasSize(1);
+            assertThat(paymentIds).containsOnly(payments.get(0).getId().toString());
+            assertThat(payments.get(0).getStatus()).isEqualTo(PaymentStatus.APPROVED);
+            verify(rabbitTemplate, atLeastOnce()).convertAndSend(eq(RabbitMQConfig.PAYMENT_RESULT_EXCHANGE),
+                    eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY), any(PaymentResponse.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void redeliveryRepublishesAnApprovedResultThatNeverReachedTheBroker() {
+        doThrow(new AmqpException("broker fora do ar")).when(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.PAYMENT_RESULT_EXCHANGE), eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY),
+                any(PaymentResponse.class));
+
+        paymentService.processPayment(request());
+        Payment approved = paymentRepository.findAll().get(0);
+        assertThat(approved.getStatus()).isEqualTo(PaymentStatus.APPROVED);
+        assertThat(approved.getResultPublishedAt()).isNull();
+
+        doNothing().when(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.PAYMENT_RESULT_EXCHANGE), eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY),
+                any(PaymentResponse.class));
+        paymentService.processPayment(request());
+
+        assertThat(paymentRepository.findAll()).hasSize(1);
+        assertThat(paymentRepository.findAll().get(0).getResultPublishedAt()).isNotNull();
+        verify(rabbitTemplate, times(2)).convertAndSend(eq(RabbitMQConfig.PAYMENT_RESULT_EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY), any(PaymentResponse.class));
+
+        // Já publicado: novas reentregas não reenviam
+        paymentService.processPayment(request());
+        verify(rabbitTemplate, times(2)).convertAndSend(eq(RabbitMQConfig.PAYMENT_RESULT_EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY), any(PaymentResponse.class));
+    }
+
+    private PaymentRequest request() {
+        PaymentRequest request = new PaymentRequest();
+        request.setOrderId(ORDER_ID);
+        request.setUserId("7");
+        request.setAmount(new BigDecimal("99.90"));
+        request.setPaymentMethod("CREDIT_CARD");
+        request.setIdempotencyKey("order-payment");
+        return request;
+    }
+}
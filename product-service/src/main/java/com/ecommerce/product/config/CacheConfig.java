@@ -0,0 +1,13 @@
+package com.ecommerce.product.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Tamanho, TTL e estatísticas do cache são definidos em spring.cache.caffeine.spec;
+// o Actuator publica cache.gets (hit/miss) e cache.evictions no Micrometer
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+}
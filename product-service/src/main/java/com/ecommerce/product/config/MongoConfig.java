@@ -0,0 +1,32 @@
+package com.ecommerce.product.config;
+
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// BigDecimal sempre como Decimal128, inclusive nos parâmetros de @Query em texto, que não passam pelo
+// mapeamento do campo; sem isso o padrão (String) nunca casa com os preços gravados como Decimal128
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(BigDecimalToDecimal128Converter.INSTANCE));
+    }
+
+    @WritingConverter
+    enum BigDecimalToDecimal128Converter implements Converter<BigDecimal, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(BigDecimal source) {
+            return new Decimal128(source);
+        }
+    }
+}
@@ -15,6 +15,18 @@ public class RabbitMQConfig {
     public static final String PAYMENT_PROCESSED_QUEUE = "payment.processed.queue.product";
     public static final String PAYMENT_PROCESSED_ROUTING_KEY = "payment.processed";
 
+    // Reserva de estoque por pedido (comando vindo do order-service e confirmação de volta)
+    public static final String STOCK_EXCHANGE = "stock.exchange";
+    public static final String STOCK_RESERVE_QUEUE = "stock.reserve.queue";
+    public static final String STOCK_RESERVE_ROUTING_KEY = "stock.reserve.key";
+    public static final String STOCK_RESERVATION_RESULT_ROUTING_KEY = "stock.reservation.result.key";
+    // Compensação: devolve o estoque reservado de um pedido cancelado
+    public static final String STOCK_RELEASE_QUEUE = "stock.release.queue";
+    public static final String STOCK_RELEASE_ROUTING_KEY = "stock.release.key";
+
+    // Alterações de produto (cadastro, preço, estoque) para invalidação de caches nos consumidores
+    public static final String PRODUCT_CHANGED_EXCHANGE = "product.changed.exchange";
+
     @Bean
     public Queue paymentProcessedQueue() {
         return new Queue(PAYMENT_PROCESSED_QUEUE, true);
@@ -32,6 +44,51 @@ public class RabbitMQConfig {
                 .with(PAYMENT_PROCESSED_ROUTING_KEY);
     }
 
+    @Bean
+    public DirectExchange stockExchange() {
+        return new DirectExchange(STOCK_EXCHANGE);
+    }
+
+    @Bean
+    public Queue stockReserveQueue() {
+        return new Queue(STOCK_RESERVE_QUEUE, true);
+    }
+
+    @Bean
+    public Binding stockReserveBinding(Queue stockReserveQueue, DirectExchange stockExchange) {
+        return BindingBuilder.bind(stockReserveQueue)
+                .to(stockExchange)
+                .with(STOCK_RESERVE_ROUTING_KEY);
+    }
+
+    @Bean
+    public Queue stockReleaseQueue() {
+        return new Queue(STOCK_RELEASE_QUEUE, true);
+    }
+
+    @Bean
+    public Binding stockReleaseBinding(Queue stockReleaseQueue, DirectExchange stockExchange) {
+        return BindingBuilder.bind(stockReleaseQueue)
+                .to(stockExchange)
+                .with(STOCK_RELEASE_ROUTING_KEY);
+    }
+
+    @Bean
+    public FanoutExchange productChangedExchange() {
+        return new FanoutExchange(PRODUCT_CHANGED_EXCHANGE);
+    }
+
+    // Fila exclusiva por instância para manter o índice de busca e o cache local atualizados
+    @Bean
+    public Queue productIndexQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding productIndexBinding(Queue productIndexQueue, FanoutExchange productChangedExchange) {
+        return BindingBuilder.bind(productIndexQueue).to(productChangedExchange);
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
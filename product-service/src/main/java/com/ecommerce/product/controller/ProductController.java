@@ -1,7 +1,10 @@
 package com.ecommerce.product.controller;
 
+import com.ecommerce.product.dto.ProductCardPageResponse;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSearchResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
 import com.ecommerce.product.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,11 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productRequest), HttpStatus.CREATED);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(@PathVariable String id) {
         return ResponseEntity.ok(productService.getProductById(id));
@@ -35,9 +43,41 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    // Listagem paginada em formato de card; category e faixa de preço são filtros opcionais
+    @GetMapping("/cards")
+    public ResponseEntity<ProductCardPageResponse> getProductCards(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "rating") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.getProductCards(category, minPrice, maxPrice, sort, cursor, page, size));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String query) {
-        return ResponseEntity.ok(productService.searchProducts(query));
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(query, page, size));
+    }
+
+    @GetMapping("/search/page")
+    public ResponseEntity<ProductSearchResponse> searchProductsPage(
+            @RequestParam String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(query, category, page, size));
+    }
+
+    @GetMapping("/search/autocomplete")
+    public ResponseEntity<List<ProductSuggestion>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.autocomplete(prefix, limit));
     }
 
     @GetMapping("/category/{category}")
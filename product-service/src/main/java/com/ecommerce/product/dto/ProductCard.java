@@ -0,0 +1,21 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Projeção leve para listagens: só o necessário para o card do produto
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCard {
+    private String id;
+    private String name;
+    private BigDecimal price;
+    private String image;
+    private Double rating;
+}
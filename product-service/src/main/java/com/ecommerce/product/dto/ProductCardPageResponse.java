@@ -0,0 +1,18 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCardPageResponse {
+    private List<ProductCard> products;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED
+    }
+
+    private String productId;
+    private ChangeType changeType;
+    private LocalDateTime occurredAt;
+}
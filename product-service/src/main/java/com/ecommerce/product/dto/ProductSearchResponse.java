@@ -0,0 +1,23 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchResponse {
+    private List<ProductResponse> products;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean hasMore;
+    // Categoria -> quantidade de produtos encontrados (considerando todos os resultados, não só a página)
+    private Map<String, Long> facets;
+}
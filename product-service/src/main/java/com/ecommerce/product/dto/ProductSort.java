@@ -0,0 +1,17 @@
+package com.ecommerce.product.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Getter
+@RequiredArgsConstructor
+public enum ProductSort {
+    RATING("rating", Sort.Direction.DESC),
+    PRICE_ASC("price", Sort.Direction.ASC),
+    PRICE_DESC("price", Sort.Direction.DESC),
+    NAME("name", Sort.Direction.ASC);
+
+    private final String field;
+    private final Sort.Direction direction;
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestion {
+    private String id;
+    private String name;
+}
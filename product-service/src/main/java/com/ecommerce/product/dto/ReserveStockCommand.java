@@ -0,0 +1,15 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveStockCommand {
+    private String orderId;
+    private List<OrderItemDto> items;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResult {
+    private String orderId;
+    private boolean success;
+    private String reason;
+}
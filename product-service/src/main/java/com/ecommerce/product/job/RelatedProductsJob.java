@@ -0,0 +1,150 @@
+package com.ecommerce.product.job;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.RelatedProducts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Recalcula periodicamente os top-K produtos relacionados de cada produto (sobreposição de categorias,
+// proximidade de preço e avaliação), para que o endpoint de relacionados seja uma leitura por chave.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedProductsJob {
+
+    private static final double CATEGORY_WEIGHT = 0.6;
+    private static final double PRICE_WEIGHT = 0.25;
+    private static final double RATING_WEIGHT = 0.15;
+    private static final double MAX_RATING = 5.0;
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${products.related.top-k:4}")
+    private int topK;
+
+    // Em categorias grandes só os mais bem avaliados entram como candidatos, limitando o custo por produto
+    @Value("${products.related.max-candidates-per-category:500}")
+    private int maxCandidatesPerCategory;
+
+    @Scheduled(initialDelayString = "${products.related.initial-delay-ms:30000}",
+            fixedDelayString = "${products.related.refresh-interval-ms:3600000}")
+    public void recompute() {
+        long start = System.currentTimeMillis();
+
+        Query query = new Query();
+        query.fields().include("categories", "price", "rating");
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        Map<String, List<Product>> byCategory = new HashMap<>();
+        for (Product product : products) {
+            if (product.getCategories() != null) {
+                for (String category : new HashSet<>(product.getCategories())) {
+                    byCategory.computeIfAbsent(category, key -> new ArrayList<>()).add(product);
+                }
+            }
+        }
+        Comparator<Product> byRating = Comparator.comparingDouble(this::rating).reversed();
+        byCategory.replaceAll((category, members) -> members.stream()
+                .sorted(byRating)
+                .limit(maxCandidatesPerCategory)
+                .toList());
+
+        LocalDateTime computedAt = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RelatedProducts.class);
+        int pending = 0;
+
+        for (Product product : products) {
+            RelatedProducts related = RelatedProducts.builder()
+                    .productId(product.getId())
+                    .relatedIds(topRelated(product, byCategory))
+                    .computedAt(computedAt)
+                    .build();
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(product.getId())), related,
+                    FindAndReplaceOptions.options().upsert());
+
+            if (++pending == WRITE_BATCH_SIZE) {
+                bulk.execute();
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RelatedProducts.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+
+        // Remove listas de produtos que deixaram de existir
+        mongoTemplate.remove(Query.query(Criteria.where("computedAt").lt(computedAt)), RelatedProducts.class);
+
+        log.info("Produtos relacionados recalculados para {} produtos em {} ms",
+                products.size(), System.currentTimeMillis() - start);
+    }
+
+    private List<String> topRelated(Product product, Map<String, List<Product>> byCategory) {
+        if (product.getCategories() == null || product.getCategories().isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> categories = new HashSet<>(product.getCategories());
+
+        // Min-heap com os K melhores candidatos
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        Set<String> seen = new HashSet<>();
+        seen.add(product.getId());
+
+        for (String category : categories) {
+            for (Product candidate : byCategory.getOrDefault(category, List.of())) {
+                if (!seen.add(candidate.getId())) {
+                    continue;
+                }
+                best.offer(Map.entry(candidate.getId(), score(product, categories, candidate)));
+                if (best.size() > topK) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        return ranked.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private double score(Product product, Set<String> categories, Product candidate) {
+        Set<String> candidateCategories = new HashSet<>(candidate.getCategories());
+        long shared = candidateCategories.stream().filter(categories::contains).count();
+        double categoryOverlap = (double) shared / (categories.size() + candidateCategories.size() - shared);
+
+        double priceProximity = 0;
+        if (product.getPrice() != null && candidate.getPrice() != null) {
+            double price = product.getPrice().doubleValue();
+            double candidatePrice = candidate.getPrice().doubleValue();
+            double max = Math.max(price, candidatePrice);
+            priceProximity = max > 0 ? 1 - Math.abs(price - candidatePrice) / max : 1;
+        }
+
+        return CATEGORY_WEIGHT * categoryOverlap
+                + PRICE_WEIGHT * priceProximity
+                + RATING_WEIGHT * rating(candidate) / MAX_RATING;
+    }
+
+    private double rating(Product product) {
+        return product.getRating() != null ? product.getRating() : 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.product.messaging;
+
+import com.ecommerce.product.dto.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static com.ecommerce.product.config.RabbitMQConfig.PRODUCT_CHANGED_EXCHANGE;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publishChanged(String productId, ProductChangedEvent.ChangeType changeType) {
+        ProductChangedEvent event = new ProductChangedEvent(productId, changeType, LocalDateTime.now());
+        try {
+            rabbitTemplate.convertAndSend(PRODUCT_CHANGED_EXCHANGE, "", event);
+        } catch (AmqpException e) {
+            // Os caches dos consumidores têm TTL, então uma invalidação perdida só atrasa a atualização
+            log.warn("Falha ao publicar alteração do produto {} ({}): {}", productId, changeType, e.getMessage());
+        }
+    }
+
+    public void publishChanged(Collection<String> productIds, ProductChangedEvent.ChangeType changeType) {
+        productIds.forEach(productId -> publishChanged(productId, changeType));
+    }
+}
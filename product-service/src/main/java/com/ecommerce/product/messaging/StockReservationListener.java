@@ -0,0 +1,55 @@
+package com.ecommerce.product.messaging;
+
+import com.ecommerce.product.dto.ReleaseStockCommand;
+import com.ecommerce.product.dto.ReserveStockCommand;
+import com.ecommerce.product.dto.StockReservationResult;
+import com.ecommerce.product.service.StockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import static com.ecommerce.product.config.RabbitMQConfig.STOCK_EXCHANGE;
+import static com.ecommerce.product.config.RabbitMQConfig.STOCK_RELEASE_QUEUE;
+import static com.ecommerce.product.config.RabbitMQConfig.STOCK_RESERVATION_RESULT_ROUTING_KEY;
+import static com.ecommerce.product.config.RabbitMQConfig.STOCK_RESERVE_QUEUE;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationListener {
+
+    private final StockService stockService;
+    private final RabbitTemplate rabbitTemplate;
+
+    @RabbitListener(queues = STOCK_RESERVE_QUEUE)
+    public void handleReserveStock(ReserveStockCommand command) {
+        log.info("Recebido comando de reserva de estoque para o pedido {} com {} itens",
+                command.getOrderId(), command.getItems() != null ? command.getItems().size() : 0);
+
+        if (command.getOrderId() == null || command.getItems() == null || command.getItems().isEmpty()) {
+            log.warn("Comando de reserva de estoque inválido: {}", command);
+            return;
+        }
+
+        StockReservationResult result = stockService.reserveStock(command);
+        if (result == null) {
+            return;
+        }
+        rabbitTemplate.convertAndSend(STOCK_EXCHANGE, STOCK_RESERVATION_RESULT_ROUTING_KEY, result);
+        log.info("Resultado da reserva de estoque enviado para o pedido {}: {}", result.getOrderId(), result.isSuccess());
+    }
+
+    @RabbitListener(queues = STOCK_RELEASE_QUEUE)
+    public void handleReleaseStock(ReleaseStockCommand command) {
+        log.info("Recebido comando de liberação de estoque para o pedido {}", command.getOrderId());
+
+        if (command.getOrderId() == null) {
+            log.warn("Comando de liberação de estoque inválido: {}", command);
+            return;
+        }
+
+        stockService.releaseStock(command);
+    }
+}
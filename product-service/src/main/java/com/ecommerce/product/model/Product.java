@@ -6,7 +6,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -15,17 +20,35 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(collection = "products")
+@Document(collection = "products", language = "portuguese")
+// categories é array, então o índice composto é multikey e seu prefixo atende buscas só por categoria.
+// O _id no fim dos índices de ordenação sustenta o desempate da paginação por cursor.
+@CompoundIndexes({
+    @CompoundIndex(name = "categories_price_idx", def = "{'categories': 1, 'price': 1}"),
+    @CompoundIndex(name = "price_id_idx", def = "{'price': 1, '_id': 1}"),
+    @CompoundIndex(name = "rating_id_idx", def = "{'rating': -1, '_id': -1}")
+})
 public class Product {
 
     @Id
     private String id;
     
     @Indexed
+    @TextIndexed(weight = 3)
     private String name;
+    
+    // Nome em minúsculas e sem acentos; prefixo ancorado sobre ele usa o índice (autocomplete)
+    @Indexed
+    private String searchName;
+    
+    @TextIndexed
     private String description;
+    // Decimal128 para que filtros e ordenação por preço sejam numéricos (o padrão do BigDecimal é String)
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
     private int quantity;
+    
+    @TextIndexed(weight = 2)
     private List<String> categories;
     private List<String> images;
     private Double rating;
@@ -0,0 +1,25 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Lista de adjacência pré-calculada pelo RelatedProductsJob, já ordenada por relevância
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "related_products")
+public class RelatedProducts {
+
+    @Id
+    private String productId;
+    private List<String> relatedIds;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Registro da reserva processada por pedido; o id é o próprio orderId para tornar o comando idempotente
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stock_reservations")
+public class StockReservation {
+
+    @Id
+    private String orderId;
+    // Reivindicada por uma entrega do comando e ainda sem resultado
+    private boolean pending;
+    private boolean success;
+    private String reason;
+    private LocalDateTime createdAt;
+    // Quantidades baixadas por produto, devolvidas quando o pedido é cancelado
+    private Map<String, Integer> quantities;
+    private boolean released;
+    private LocalDateTime releasedAt;
+}
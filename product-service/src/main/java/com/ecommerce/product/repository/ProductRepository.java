@@ -1,6 +1,7 @@
 package com.ecommerce.product.repository;
 
 import com.ecommerce.product.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,9 +10,10 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
 
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query("{'_id': {$in: ?0}}")
+    List<Product> findByIdIn(List<String> ids);
     
     List<Product> findByCategoriesContaining(String category);
     
@@ -19,5 +21,5 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     List<Product> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     
     @Query(value = "{'categories': {$in: ?0}}", fields = "{'id': 1, 'name': 1, 'price': 1, 'images': 1}")
-    List<Product> findRelatedProducts(List<String> categories);
+    List<Product> findRelatedProducts(List<String> categories, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.dto.ProductSort;
+import com.ecommerce.product.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ProductRepositoryCustom {
+
+    // Retorna o novo estoque, ou vazio se o produto não existe ou não tem estoque suficiente
+    Optional<Integer> decrementStock(String productId, int quantity);
+
+    // Retorna o novo estoque, ou vazio se o produto não existe
+    Optional<Integer> incrementStock(String productId, int quantity);
+
+    // Tudo ou nada: se alguma linha não tiver estoque suficiente, nenhuma é alterada
+    boolean decrementStock(Map<String, Integer> quantities);
+
+    void incrementStock(Map<String, Integer> quantities);
+
+    // Busca no índice de texto ordenada por relevância
+    Page<Product> searchByText(String query, Pageable pageable);
+
+    // Prefixo sobre o nome normalizado (ver TextNormalizer)
+    List<Product> findByNamePrefix(String normalizedPrefix, int limit);
+
+    Page<Product> findByNamePrefix(String normalizedPrefix, Pageable pageable);
+
+    // Listagem com projeção de card (id, nome, preço, primeira imagem, avaliação). Filtros nulos são ignorados;
+    // com cursor, continua depois de (cursorValue, cursorId) na ordem de sort, senão pula 'offset' documentos.
+    List<Product> findCards(String category, BigDecimal minPrice, BigDecimal maxPrice, ProductSort sort,
+                            Object cursorValue, String cursorId, int offset, int limit);
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.dto.ProductSort;
+import com.ecommerce.product.model.Product;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Marca temporária gravada pelas baixas em lote para identificar quais linhas foram aplicadas
+    private static final String PENDING_STOCK_OPERATIONS = "pendingStockOperations";
+
+    private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Integer> decrementStock(String productId, int quantity) {
+        requirePositive(quantity);
+        Query query = Query.query(Criteria.where("_id").is(productId).and("quantity").gte(quantity));
+        query.fields().include("quantity");
+
+        Product updated = mongoTemplate.findAndModify(query, new Update().inc("quantity", -quantity),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        return Optional.ofNullable(updated).map(Product::getQuantity);
+    }
+
+    @Override
+    public Optional<Integer> incrementStock(String productId, int quantity) {
+        requirePositive(quantity);
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        query.fields().include("quantity");
+
+        Product updated = mongoTemplate.findAndModify(query, new Update().inc("quantity", quantity),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        return Optional.ofNullable(updated).map(Product::getQuantity);
+    }
+
+    @Override
+    public boolean decrementStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        quantities.values().forEach(this::requirePositive);
+
+        String operationId = UUID.randomUUID().toString();
+        BulkOperations decrement = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        quantities.forEach((productId, quantity) -> decrement.updateOne(
+                Query.query(Criteria.where("_id").is(productId).and("quantity").gte(quantity)),
+                new Update().inc("quantity", -quantity).addToSet(PENDING_STOCK_OPERATIONS, operationId)));
+        BulkWriteResult result = decrement.execute();
+
+        Query applied = Query.query(Criteria.where("_id").in(new ArrayList<>(quantities.keySet()))
+                .and(PENDING_STOCK_OPERATIONS).is(operationId));
+
+        if (result.getModifiedCount() == quantities.size()) {
+            mongoTemplate.updateMulti(applied, new Update().pull(PENDING_STOCK_OPERATIONS, operationId), Product.class);
+            return true;
+        }
+
+        // Alguma linha falhou: devolve apenas as que carregam a marca desta operação
+        BulkOperations rollback = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        quantities.forEach((productId, quantity) -> rollback.updateOne(
+                Query.query(Criteria.where("_id").is(productId).and(PENDING_STOCK_OPERATIONS).is(operationId)),
+                new Update().inc("quantity", quantity).pull(PENDING_STOCK_OPERATIONS, operationId)));
+        rollback.execute();
+        return false;
+    }
+
+    @Override
+    public void incrementStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        quantities.values().forEach(this::requirePositive);
+
+        BulkOperations increment = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        quantities.forEach((productId, quantity) -> increment.updateOne(
+                Query.query(Criteria.where("_id").is(productId)),
+                new Update().inc("quantity", quantity)));
+        increment.execute();
+    }
+
+    @Override
+    public Page<Product> searchByText(String query, Pageable pageable) {
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+                .sortByScore()
+                .with(pageable);
+
+        List<Product> products = mongoTemplate.find(textQuery, Product.class);
+        return PageableExecutionUtils.getPage(products, pageable,
+                () -> mongoTemplate.count(Query.of(textQuery).limit(-1).skip(-1), Product.class));
+    }
+
+    @Override
+    public List<Product> findByNamePrefix(String normalizedPrefix, int limit) {
+        Query query = namePrefixQuery(normalizedPrefix).with(Sort.by("searchName")).limit(limit);
+        query.fields().include("name");
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Page<Product> findByNamePrefix(String normalizedPrefix, Pageable pageable) {
+        Query query = namePrefixQuery(normalizedPrefix).with(Sort.by("searchName")).with(pageable);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        return PageableExecutionUtils.getPage(products, pageable,
+                () -> mongoTemplate.count(namePrefixQuery(normalizedPrefix), Product.class));
+    }
+
+    @Override
+    public List<Product> findCards(String category, BigDecimal minPrice, BigDecimal maxPrice, ProductSort sort,
+                                   Object cursorValue, String cursorId, int offset, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (category != null) {
+            filters.add(Criteria.where("categories").is(category));
+        }
+        if (minPrice != null) {
+            filters.add(Criteria.where("price").gte(minPrice));
+        }
+        if (maxPrice != null) {
+            filters.add(Criteria.where("price").lte(maxPrice));
+        }
+        if (cursorId != null) {
+            filters.add(afterCursor(sort, cursorValue, cursorId));
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(sort.getDirection(), sort.getField()).and(Sort.by(sort.getDirection(), "_id")));
+        if (cursorId == null && offset > 0) {
+            query.skip(offset);
+        }
+        query.limit(limit);
+        query.fields().include("name", "price", "rating").slice("images", 1);
+
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    // Keyset sobre (campo, _id). Nulos vêm antes de qualquer valor na ordem do Mongo.
+    private Criteria afterCursor(ProductSort sort, Object cursorValue, String cursorId) {
+        String field = sort.getField();
+        boolean descending = sort.getDirection() == Sort.Direction.DESC;
+
+        if (cursorValue == null) {
+            Criteria sameValue = Criteria.where(field).is(null).and("_id");
+            return descending
+                    ? sameValue.lt(cursorId)
+                    : new Criteria().orOperator(sameValue.gt(cursorId), Criteria.where(field).ne(null));
+        }
+
+        Criteria sameValue = Criteria.where(field).is(cursorValue).and("_id");
+        if (descending) {
+            return new Criteria().orOperator(
+                    Criteria.where(field).lt(cursorValue),
+                    sameValue.lt(cursorId),
+                    Criteria.where(field).is(null));
+        }
+        return new Criteria().orOperator(Criteria.where(field).gt(cursorValue), sameValue.gt(cursorId));
+    }
+
+    // Regex ancorada e sensível a maiúsculas: o Mongo resolve como faixa no índice de searchName
+    private Query namePrefixQuery(String normalizedPrefix) {
+        String escaped = REGEX_METACHARACTERS.matcher(normalizedPrefix).replaceAll("\\\\$0");
+        return Query.query(Criteria.where("searchName").regex("^" + escaped));
+    }
+
+    private void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero: " + quantity);
+        }
+    }
+}
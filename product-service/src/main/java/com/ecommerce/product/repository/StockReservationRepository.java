@@ -0,0 +1,9 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.StockReservation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReservationRepository extends MongoRepository<StockReservation, String>, StockReservationRepositoryCustom {
+}
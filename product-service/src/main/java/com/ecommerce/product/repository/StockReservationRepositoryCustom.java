@@ -0,0 +1,17 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.StockReservation;
+
+import java.util.Optional;
+
+public interface StockReservationRepositoryCustom {
+
+    // Insere a reserva como reivindicação do pedido; false se outra entrega já a registrou
+    boolean claim(StockReservation reservation);
+
+    // Fecha a reivindicação com o resultado da baixa
+    void complete(String orderId, boolean success, String reason);
+
+    // Marca atomicamente uma reserva bem-sucedida como liberada; vazio se não existe, falhou ou já foi liberada
+    Optional<StockReservation> markReleased(String orderId);
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class StockReservationRepositoryCustomImpl implements StockReservationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean claim(StockReservation reservation) {
+        try {
+            mongoTemplate.insert(reservation);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String orderId, boolean success, String reason) {
+        Update update = new Update().set("pending", false).set("success", success).set("reason", reason);
+        if (!success) {
+            update.unset("quantities");
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(orderId)), update, StockReservation.class);
+    }
+
+    @Override
+    public Optional<StockReservation> markReleased(String orderId) {
+        Query query = Query.query(Criteria.where("_id").is(orderId)
+                .and("success").is(true)
+                .and("released").ne(true));
+        Update update = new Update().set("released", true).set("releasedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), StockReservation.class));
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+// Converte para Decimal128 os preços gravados como texto ou double antes do mapeamento explícito do campo,
+// para que filtros, ordenação e os índices de preço vejam um único tipo
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceTypeBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query query = Query.query(Criteria.where("price").type(JsonSchemaObject.Type.STRING,
+                JsonSchemaObject.Type.DOUBLE, JsonSchemaObject.Type.INT_32, JsonSchemaObject.Type.INT_64));
+        query.fields().include("price");
+
+        int updated = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(Product.class))) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                BigDecimal price = toBigDecimal(document.get("price"));
+                if (price == null) {
+                    log.warn("Preço inválido no produto {} não convertido: {}", document.get("_id"), document.get("price"));
+                    continue;
+                }
+                bulk.updateOne(Query.query(Criteria.where("_id").is(document.get("_id"))),
+                        Update.update("price", new Decimal128(price)));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    updated += pending;
+                    pending = 0;
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            updated += pending;
+        }
+
+        if (updated > 0) {
+            log.info("Preço convertido para Decimal128 em {} produtos", updated);
+        }
+    }
+
+    private BigDecimal toBigDecimal(Object price) {
+        if (price instanceof Double number) {
+            return BigDecimal.valueOf(number);
+        }
+        if (price instanceof Number number) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        try {
+            return new BigDecimal(((String) price).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.config.CacheConfig;
+import com.ecommerce.product.dto.ProductChangedEvent;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+// Carrega o índice de busca na inicialização e o mantém atualizado pelos eventos de alteração de produto.
+// Cada instância tem sua fila anônima no fanout, então também recebe as alterações feitas pelas outras.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexSynchronizer {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        try (Stream<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+            products.forEach(productSearchIndex::indexIfAbsent);
+        }
+        productSearchIndex.markReady();
+        log.info("Índice de busca carregado com {} produtos em {} ms",
+                productSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @RabbitListener(queues = "#{productIndexQueue.name}")
+    public void handleProductChanged(ProductChangedEvent event) {
+        String productId = event.getProductId();
+        if (productId == null) {
+            return;
+        }
+
+        // Alterações feitas por outra instância também precisam sair do cache local
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            cache.evict(productId);
+        }
+
+        if (event.getChangeType() == ProductChangedEvent.ChangeType.DELETED) {
+            productSearchIndex.remove(productId);
+            return;
+        }
+
+        productRepository.findById(productId).ifPresentOrElse(
+                productSearchIndex::index,
+                () -> productSearchIndex.remove(productId));
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido em memória sobre nome, categorias e descrição, com ranking BM25 e facetas por categoria.
+// Os termos passam pelo TextNormalizer, então "cafe" encontra "Café".
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Prefixos muito curtos expandiriam para boa parte do vocabulário
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+            "um", "uma", "para", "com", "por", "sem", "ao", "que");
+
+    private final Map<String, IndexedProduct> documents = new HashMap<>();
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        IndexedProduct document = analyze(product);
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            addInternal(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Usado na carga inicial: não sobrescreve uma versão mais nova já indexada por evento
+    public void indexIfAbsent(Product product) {
+        IndexedProduct document = analyze(product);
+        lock.writeLock().lock();
+        try {
+            if (!documents.containsKey(product.getId())) {
+                addInternal(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, String category, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(new ArrayList<>(), 0, new LinkedHashMap<>());
+        }
+        String categoryFilter = category != null && !category.isBlank() ? TextNormalizer.normalize(category) : null;
+
+        lock.readLock().lock();
+        try {
+            double averageLength = documents.isEmpty() ? 0 : (double) totalLength / documents.size();
+            Map<String, Double> scores = new HashMap<>();
+
+            for (int i = 0; i < terms.size(); i++) {
+                // O último termo também vale como prefixo ("cam" -> "camisa"), útil para busca enquanto digita
+                boolean last = i == terms.size() - 1;
+                for (Map.Entry<String, Map<String, Integer>> posting : matchingPostings(terms.get(i), last).entrySet()) {
+                    double idf = idf(posting.getValue().size());
+                    posting.getValue().forEach((productId, frequency) -> {
+                        double length = documents.get(productId).length;
+                        double norm = K1 * (1 - B + B * length / averageLength);
+                        double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                        scores.merge(productId, score, Double::sum);
+                    });
+                }
+            }
+
+            Map<String, Long> facets = new HashMap<>();
+            List<Map.Entry<String, Double>> matches = new ArrayList<>();
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                IndexedProduct document = documents.get(entry.getKey());
+                for (String displayCategory : document.normalizedCategories.values()) {
+                    facets.merge(displayCategory, 1L, Long::sum);
+                }
+                if (categoryFilter == null || document.normalizedCategories.containsKey(categoryFilter)) {
+                    matches.add(entry);
+                }
+            }
+
+            matches.sort(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+            List<Product> products = new ArrayList<>();
+            int from = Math.min(page * size, matches.size());
+            int to = Math.min(from + size, matches.size());
+            for (Map.Entry<String, Double> match : matches.subList(from, to)) {
+                products.add(documents.get(match.getKey()).product);
+            }
+
+            Map<String, Long> sortedFacets = new LinkedHashMap<>();
+            facets.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sortedFacets.put(entry.getKey(), entry.getValue()));
+
+            return new SearchHits(products, matches.size(), sortedFacets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Map<String, Integer>> matchingPostings(String term, boolean allowPrefix) {
+        if (!allowPrefix || term.length() < MIN_PREFIX_LENGTH) {
+            Map<String, Integer> exact = postings.get(term);
+            return exact != null ? Map.of(term, exact) : Map.of();
+        }
+        return postings.subMap(term, true, term + Character.MAX_VALUE, false);
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private IndexedProduct analyze(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, product.getName(), NAME_WEIGHT);
+        addTerms(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        Map<String, String> normalizedCategories = new LinkedHashMap<>();
+        if (product.getCategories() != null) {
+            for (String category : product.getCategories()) {
+                addTerms(frequencies, category, CATEGORY_WEIGHT);
+                normalizedCategories.putIfAbsent(TextNormalizer.normalize(category), category);
+            }
+        }
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        return new IndexedProduct(product, frequencies, normalizedCategories, length);
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(TextNormalizer.normalize(text))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private void addInternal(IndexedProduct document) {
+        String productId = document.product.getId();
+        documents.put(productId, document);
+        document.frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(productId, frequency));
+        totalLength += document.length;
+    }
+
+    private void removeInternal(String productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.frequencies.keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length;
+    }
+
+    @AllArgsConstructor
+    private static class IndexedProduct {
+        private final Product product;
+        private final Map<String, Integer> frequencies;
+        // Categoria normalizada -> nome original exibido na faceta
+        private final Map<String, String> normalizedCategories;
+        private final int length;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchHits {
+        private final List<Product> products;
+        private final long totalHits;
+        private final Map<String, Long> facets;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Preenche o nome normalizado dos produtos gravados antes da existência do campo
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchNameBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query query = Query.query(Criteria.where("searchName").exists(false)).limit(BATCH_SIZE);
+        query.fields().include("name");
+
+        int updated = 0;
+        List<Product> batch;
+        while (!(batch = mongoTemplate.find(query, Product.class)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            for (Product product : batch) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(product.getId())),
+                        Update.update("searchName", TextNormalizer.normalize(product.getName())));
+            }
+            bulk.execute();
+            updated += batch.size();
+        }
+
+        if (updated > 0) {
+            log.info("Nome normalizado preenchido para {} produtos", updated);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.product.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Minúsculas e sem acentos ("Café Torrado" -> "cafe torrado"), usado para prefixo e busca
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
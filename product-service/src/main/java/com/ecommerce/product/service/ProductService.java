@@ -1,10 +1,14 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.dto.ProductCardPageResponse;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSearchResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
 
@@ -12,9 +16,18 @@ public interface ProductService {
     
     ProductResponse getProductById(String id);
     
+    List<ProductResponse> getProductsByIds(List<String> ids);
+    
     List<ProductResponse> getAllProducts();
     
-    List<ProductResponse> searchProducts(String query);
+    ProductCardPageResponse getProductCards(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                            String sort, String cursor, int page, int size);
+    
+    List<ProductResponse> searchProducts(String query, int page, int size);
+    
+    ProductSearchResponse searchProducts(String query, String category, int page, int size);
+    
+    List<ProductSuggestion> autocomplete(String prefix, int limit);
     
     List<ProductResponse> getProductsByCategory(String category);
     
@@ -29,4 +42,8 @@ public interface ProductService {
     boolean decreaseStock(String productId, int quantity);
     
     boolean increaseStock(String productId, int quantity);
+    
+    boolean decreaseStock(Map<String, Integer> quantities);
+    
+    void increaseStock(Map<String, Integer> quantities);
 } 
\ No newline at end of file
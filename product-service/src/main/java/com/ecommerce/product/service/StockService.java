@@ -1,7 +1,14 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.dto.ReleaseStockCommand;
+import com.ecommerce.product.dto.ReserveStockCommand;
+import com.ecommerce.product.dto.StockReservationResult;
+
 public interface StockService {
     void processCompletedPayment(String orderId);
     void processFailedPayment(String orderId);
     void processRefundedPayment(String orderId);
-} 
\ No newline at end of file
+    // Nulo quando outra entrega do mesmo comando ainda está processando a reserva
+    StockReservationResult reserveStock(ReserveStockCommand command);
+    void releaseStock(ReleaseStockCommand command);
+}
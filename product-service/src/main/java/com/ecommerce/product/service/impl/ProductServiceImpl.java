@@ -1,21 +1,46 @@
 package com.ecommerce.product.service.impl;
 
+import com.ecommerce.product.config.CacheConfig;
+import com.ecommerce.product.dto.ProductChangedEvent.ChangeType;
+import com.ecommerce.product.dto.ProductCard;
+import com.ecommerce.product.dto.ProductCardPageResponse;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSort;
+import com.ecommerce.product.dto.ProductSearchResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
 import com.ecommerce.product.exception.ProductNotFoundException;
+import com.ecommerce.product.messaging.ProductEventPublisher;
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.RelatedProducts;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.RelatedProductsRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.TextNormalizer;
 import com.ecommerce.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,12 +48,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_CARD_PAGE_SIZE = 100;
+    private static final int RELATED_PRODUCTS_LIMIT = 4;
+
     private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final ProductEventPublisher productEventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final RelatedProductsRepository relatedProductsRepository;
 
     @Override
     public ProductResponse createProduct(ProductRequest productRequest) {
         Product product = Product.builder()
                 .name(productRequest.getName())
+                .searchName(TextNormalizer.normalize(productRequest.getName()))
                 .description(productRequest.getDescription())
                 .price(productRequest.getPrice())
                 .quantity(productRequest.getQuantity())
@@ -39,10 +74,12 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        productEventPublisher.publishChanged(savedProduct.getId(), ChangeType.CREATED);
         return mapToProductResponse(savedProduct);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse getProductById(String id) {
         log.info("Buscando produto com ID: {}", id);
         Product product = productRepository.findById(id)
@@ -55,21 +92,146 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<ProductResponse> getAllProducts() {
-        List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "rating"));
+    public List<ProductResponse> getProductsByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<String> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        log.info("Buscando {} produtos em lote", distinctIds.size());
+        
+        List<Product> products = productRepository.findByIdIn(distinctIds);
         return products.stream()
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ProductResponse> searchProducts(String query) {
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(query);
+    public List<ProductResponse> getAllProducts() {
+        List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "rating"));
         return products.stream()
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public ProductCardPageResponse getProductCards(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                                   String sort, String cursor, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CARD_PAGE_SIZE);
+        ProductSort productSort = parseSort(sort);
+        Object cursorValue = null;
+        String cursorId = null;
+        
+        // Cursor: "sort|id|valor" em base64url; o valor é o do campo de ordenação do último card retornado
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                if (ProductSort.valueOf(parts[0]) != productSort) {
+                    throw new IllegalArgumentException("Cursor gerado para outra ordenação: " + parts[0]);
+                }
+                cursorId = parts[1];
+                cursorValue = parseCursorValue(productSort, parts[2]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido: " + cursor);
+            }
+        }
+        
+        List<Product> products = productRepository.findCards(category, minPrice, maxPrice, productSort,
+                cursorValue, cursorId, Math.max(page, 0) * pageSize, pageSize + 1);
+        
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = products.get(products.size() - 1);
+            Object lastValue = switch (productSort) {
+                case RATING -> last.getRating();
+                case PRICE_ASC, PRICE_DESC -> last.getPrice();
+                case NAME -> last.getName();
+            };
+            String rawCursor = productSort.name() + "|" + last.getId() + "|" + (lastValue == null ? "" : "v" + lastValue);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        return ProductCardPageResponse.builder()
+                .products(products.stream().map(this::mapToProductCard).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    private ProductSort parseSort(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return ProductSort.RATING;
+        }
+        try {
+            return ProductSort.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ordenação inválida: " + sort);
+        }
+    }
+    
+    // Valor vazio representa campo nulo; os demais vêm com o prefixo "v"
+    private Object parseCursorValue(ProductSort sort, String rawValue) {
+        if (rawValue.isEmpty()) {
+            return null;
+        }
+        String value = rawValue.substring(1);
+        return switch (sort) {
+            case RATING -> Double.valueOf(value);
+            case PRICE_ASC, PRICE_DESC -> new BigDecimal(value);
+            case NAME -> value;
+        };
+    }
+
+    @Override
+    public List<ProductResponse> searchProducts(String query, int page, int size) {
+        return searchProducts(query, null, page, size).getProducts();
+    }
+    
+    @Override
+    public ProductSearchResponse searchProducts(String query, String category, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        
+        String normalizedQuery = TextNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return toSearchResponse(new ArrayList<>(), pageNumber, pageSize, 0, new LinkedHashMap<>());
+        }
+        
+        // Índice em memória; enquanto a carga inicial não termina, a busca vai para o Mongo
+        if (productSearchIndex.isReady()) {
+            ProductSearchIndex.SearchHits hits = productSearchIndex.search(query, category, pageNumber, pageSize);
+            return toSearchResponse(hits.getProducts(), pageNumber, pageSize, hits.getTotalHits(), hits.getFacets());
+        }
+        
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+        Page<Product> products = productRepository.searchByText(query, pageable);
+        
+        // O índice de texto casa palavras inteiras; termos parciais ("cam" -> "camisa") caem no prefixo do nome
+        if (products.getTotalElements() == 0) {
+            products = productRepository.findByNamePrefix(normalizedQuery, pageable);
+        }
+        
+        return toSearchResponse(products.getContent(), pageNumber, pageSize, products.getTotalElements(), new LinkedHashMap<>());
+    }
+    
+    @Override
+    public List<ProductSuggestion> autocomplete(String prefix, int limit) {
+        String normalizedPrefix = TextNormalizer.normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        return productRepository.findByNamePrefix(normalizedPrefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS)).stream()
+                .map(product -> new ProductSuggestion(product.getId(), product.getName()))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<ProductResponse> getProductsByCategory(String category) {
         List<Product> products = productRepository.findByCategoriesContaining(category);
@@ -88,23 +250,38 @@ public class ProductServiceImpl implements ProductService {
     
     @Override
     public List<ProductResponse> getRelatedProducts(String productId) {
+        Optional<RelatedProducts> precomputed = relatedProductsRepository.findById(productId);
+        if (precomputed.isPresent()) {
+            Map<String, Product> byId = productRepository.findByIdIn(precomputed.get().getRelatedIds()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            return precomputed.get().getRelatedIds().stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(this::mapToProductResponse)
+                    .collect(Collectors.toList());
+        }
+        
+        // Produto ainda não processado pelo RelatedProductsJob: busca limitada pelas categorias
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Produto não encontrado com id: " + productId));
                 
-        List<Product> relatedProducts = productRepository.findRelatedProducts(product.getCategories());
+        List<Product> relatedProducts = productRepository.findRelatedProducts(product.getCategories(),
+                PageRequest.of(0, RELATED_PRODUCTS_LIMIT + 1));
         return relatedProducts.stream()
                 .filter(p -> !p.getId().equals(productId))
-                .limit(4)
+                .limit(RELATED_PRODUCTS_LIMIT)
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse updateProduct(String id, ProductRequest productRequest) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Produto não encontrado com id: " + id));
 
         product.setName(productRequest.getName());
+        product.setSearchName(TextNormalizer.normalize(productRequest.getName()));
         product.setDescription(productRequest.getDescription());
         product.setPrice(productRequest.getPrice());
         product.setQuantity(productRequest.getQuantity());
@@ -112,48 +289,100 @@ public class ProductServiceImpl implements ProductService {
         product.setImages(productRequest.getImages());
 
         Product updatedProduct = productRepository.save(product);
+        productEventPublisher.publishChanged(id, ChangeType.UPDATED);
         return mapToProductResponse(updatedProduct);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(String id) {
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Produto não encontrado com id: " + id);
         }
         productRepository.deleteById(id);
+        productEventPublisher.publishChanged(id, ChangeType.DELETED);
     }
 
     @Override
-    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
     public boolean decreaseStock(String productId, int quantity) {
         log.info("Diminuindo estoque para o produto {} em {} unidades", productId, quantity);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Produto não encontrado com id: " + productId));
+        Optional<Integer> newQuantity = productRepository.decrementStock(productId, quantity);
         
-        if (product.getQuantity() < quantity) {
-            log.warn("Estoque insuficiente para o produto {}: disponível {}, solicitado {}", 
-                    productId, product.getQuantity(), quantity);
+        if (newQuantity.isEmpty()) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException("Produto não encontrado com id: " + productId);
+            }
+            log.warn("Estoque insuficiente para o produto {}: solicitado {}", productId, quantity);
             return false;
         }
         
-        product.setQuantity(product.getQuantity() - quantity);
-        productRepository.save(product);
-        log.info("Estoque atualizado para o produto {}: novo estoque {}", productId, product.getQuantity());
+        log.info("Estoque atualizado para o produto {}: novo estoque {}", productId, newQuantity.get());
+        productEventPublisher.publishChanged(productId, ChangeType.STOCK_CHANGED);
         return true;
     }
     
     @Override
-    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
     public boolean increaseStock(String productId, int quantity) {
         log.info("Aumentando estoque para o produto {} em {} unidades", productId, quantity);
-        Product product = productRepository.findById(productId)
+        Integer newQuantity = productRepository.incrementStock(productId, quantity)
                 .orElseThrow(() -> new ProductNotFoundException("Produto não encontrado com id: " + productId));
         
-        product.setQuantity(product.getQuantity() + quantity);
-        productRepository.save(product);
-        log.info("Estoque atualizado para o produto {}: novo estoque {}", productId, product.getQuantity());
+        log.info("Estoque atualizado para o produto {}: novo estoque {}", productId, newQuantity);
+        productEventPublisher.publishChanged(productId, ChangeType.STOCK_CHANGED);
         return true;
     }
+    
+    @Override
+    public boolean decreaseStock(Map<String, Integer> quantities) {
+        log.info("Diminuindo estoque em lote para {} produtos", quantities.size());
+        boolean success = productRepository.decrementStock(quantities);
+        evictCachedProducts(quantities.keySet());
+        if (!success) {
+            log.warn("Estoque insuficiente para um ou mais produtos do lote: {}", quantities);
+            return false;
+        }
+        productEventPublisher.publishChanged(quantities.keySet(), ChangeType.STOCK_CHANGED);
+        return true;
+    }
+    
+    @Override
+    public void increaseStock(Map<String, Integer> quantities) {
+        log.info("Aumentando estoque em lote para {} produtos", quantities.size());
+        productRepository.incrementStock(quantities);
+        evictCachedProducts(quantities.keySet());
+        productEventPublisher.publishChanged(quantities.keySet(), ChangeType.STOCK_CHANGED);
+    }
+
+    private void evictCachedProducts(Collection<String> productIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            productIds.forEach(cache::evict);
+        }
+    }
+
+    private ProductSearchResponse toSearchResponse(List<Product> products, int page, int size,
+                                                   long totalElements, Map<String, Long> facets) {
+        return ProductSearchResponse.builder()
+                .products(products.stream().map(this::mapToProductResponse).collect(Collectors.toList()))
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .hasMore((long) (page + 1) * size < totalElements)
+                .facets(facets)
+                .build();
+    }
+
+    private ProductCard mapToProductCard(Product product) {
+        return ProductCard.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .image(product.getImages() != null && !product.getImages().isEmpty() ? product.getImages().get(0) : null)
+                .rating(product.getRating())
+                .build();
+    }
 
     private ProductResponse mapToProductResponse(Product product) {
         return ProductResponse.builder()
@@ -1,14 +1,23 @@
 package com.ecommerce.product.service.impl;
 
 import com.ecommerce.product.client.OrderServiceClient;
+import com.ecommerce.product.dto.OrderItemDto;
+import com.ecommerce.product.dto.ReleaseStockCommand;
+import com.ecommerce.product.dto.ReserveStockCommand;
+import com.ecommerce.product.dto.StockReservationResult;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.repository.StockReservationRepository;
 import com.ecommerce.product.service.ProductService;
 import com.ecommerce.product.service.StockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +26,7 @@ public class StockServiceImpl implements StockService {
 
     private final ProductService productService;
     private final OrderServiceClient orderServiceClient;
+    private final StockReservationRepository stockReservationRepository;
 
     @Override
     public void processCompletedPayment(String orderId) {
@@ -77,4 +87,80 @@ public class StockServiceImpl implements StockService {
             log.error("Erro ao processar reembolso para o pedido {}: {}", orderId, e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public StockReservationResult reserveStock(ReserveStockCommand command) {
+        String orderId = command.getOrderId();
+        log.info("Reservando estoque para o pedido: {}", orderId);
+
+        // Linhas repetidas do mesmo produto são somadas antes da baixa em lote
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemDto item : command.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        // A reserva com _id = orderId é gravada antes da baixa: só a entrega que a inserir mexe no estoque
+        StockReservation claim = StockReservation.builder()
+                .orderId(orderId)
+                .pending(true)
+                .quantities(quantities)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!stockReservationRepository.claim(claim)) {
+            return existingResult(orderId);
+        }
+
+        boolean reserved;
+        try {
+            reserved = productService.decreaseStock(quantities);
+        } catch (Exception e) {
+            // A baixa em lote já desfez o que aplicou; libera a reivindicação para uma nova tentativa
+            stockReservationRepository.deleteById(orderId);
+            log.error("Erro ao reservar estoque do pedido {}: {}", orderId, e.getMessage());
+            return new StockReservationResult(orderId, false, "Erro ao reservar estoque: " + e.getMessage());
+        }
+
+        String failureReason = reserved ? null : "Estoque insuficiente para um ou mais produtos";
+        stockReservationRepository.complete(orderId, reserved, failureReason);
+
+        if (reserved) {
+            log.info("Estoque reservado para o pedido {} ({} produtos)", orderId, quantities.size());
+        } else {
+            log.warn("Reserva de estoque do pedido {} rejeitada: {}", orderId, failureReason);
+        }
+        return new StockReservationResult(orderId, reserved, failureReason);
+    }
+
+    // Reentregas do mesmo comando devolvem o resultado já registrado sem tocar no estoque novamente
+    private StockReservationResult existingResult(String orderId) {
+        Optional<StockReservation> existing = stockReservationRepository.findById(orderId);
+        if (existing.isEmpty() || existing.get().isPending()) {
+            // A entrega que detém a reivindicação publica o resultado
+            log.info("Reserva de estoque do pedido {} em andamento por outra entrega", orderId);
+            return null;
+        }
+        log.info("Reserva de estoque do pedido {} já processada, reenviando resultado", orderId);
+        return new StockReservationResult(orderId, existing.get().isSuccess(), existing.get().getReason());
+    }
+
+    @Override
+    public void releaseStock(ReleaseStockCommand command) {
+        String orderId = command.getOrderId();
+
+        // Só quem vira o flag devolve o estoque: reentregas e cancelamentos repetidos não somam duas vezes
+        Optional<StockReservation> reservation = stockReservationRepository.markReleased(orderId);
+        if (reservation.isEmpty()) {
+            log.info("Nenhuma reserva ativa para liberar no pedido {}", orderId);
+            return;
+        }
+
+        Map<String, Integer> quantities = reservation.get().getQuantities();
+        if (quantities == null || quantities.isEmpty()) {
+            log.warn("Reserva do pedido {} sem quantidades registradas, estoque não devolvido", orderId);
+            return;
+        }
+
+        productService.increaseStock(quantities);
+        log.info("Estoque da reserva do pedido {} devolvido ({} produtos)", orderId, quantities.size());
+    }
+}
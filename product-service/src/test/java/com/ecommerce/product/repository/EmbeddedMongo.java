@@ -0,0 +1,37 @@
+package com.ecommerce.product.repository;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+// Um mongod embarcado por JVM de teste, compartilhado pelas classes que o registram.
+// O binário é baixado na primeira execução; sem ele os testes falham. Ambientes sem acesso ao
+// repositório do MongoDB desligam essas classes explicitamente com -Dtests.embedded-mongo.skip=true.
+final class EmbeddedMongo {
+
+    static final String SKIP_PROPERTY = "tests.embedded-mongo.skip";
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    private EmbeddedMongo() {
+    }
+
+    static synchronized void start() {
+        if (mongod == null) {
+            try {
+                mongod = Mongod.instance().start(Version.Main.V6_0);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Não foi possível iniciar o mongod embarcado; use -D"
+                        + SKIP_PROPERTY + "=true para pular os testes que dependem dele", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(mongod::close));
+        }
+    }
+
+    static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + mongod.current().getServerAddress() + "/products_test");
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.config.MongoConfig;
+import com.ecommerce.product.model.Product;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// O plano vencedor de cada consulta de catálogo precisa usar índice (IXSCAN), nunca varrer a coleção (COLLSCAN).
+// O explain roda sobre o comando find que o ProductRepository de fato enviou, capturado por um CommandListener.
+@DataMongoTest
+@DisabledIfSystemProperty(named = EmbeddedMongo.SKIP_PROPERTY, matches = "true")
+@Import(MongoConfig.class)
+class ProductIndexUsageTest {
+
+    private static final int PRODUCTS = 300;
+
+    private static final List<BsonDocument> FIND_COMMANDS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class FindCommandCapture {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureFindCommands() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    // O documento do evento só vale durante o callback
+                    if ("find".equals(event.getCommandName())) {
+                        FIND_COMMANDS.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @BeforeAll
+    static void startMongo() {
+        EmbeddedMongo.start();
+    }
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        EmbeddedMongo.register(registry);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setId("p-" + i);
+            product.setName("Produto " + i);
+            product.setPrice(BigDecimal.valueOf(i).add(new BigDecimal("0.90")));
+            product.setQuantity(10);
+            product.setCategories(List.of("categoria-" + (i % 10), "todos"));
+            product.setRating((i % 50) / 10.0);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        FIND_COMMANDS.clear();
+    }
+
+    @Test
+    void findByCategoriesContainingUsesAnIndex() {
+        assertThat(productRepository.findByCategoriesContaining("categoria-3")).hasSize(PRODUCTS / 10);
+        assertUsesIndex();
+    }
+
+    @Test
+    void findByPriceRangeUsesAnIndex() {
+        assertThat(productRepository.findByPriceRange(new BigDecimal("10"), new BigDecimal("20"))).hasSize(10);
+        assertUsesIndex();
+    }
+
+    @Test
+    void findRelatedProductsUsesAnIndex() {
+        assertThat(productRepository.findRelatedProducts(List.of("categoria-1", "categoria-2"), PageRequest.of(0, 8)))
+                .hasSize(8);
+        assertUsesIndex();
+    }
+
+    @Test
+    void getAllProductsSortByRatingUsesAnIndex() {
+        // Mesma ordenação de ProductServiceImpl.getAllProducts
+        assertThat(productRepository.findAll(Sort.by(Sort.Direction.DESC, "rating"))).hasSize(PRODUCTS);
+        assertUsesIndex();
+    }
+
+    private void assertUsesIndex() {
+        assertThat(FIND_COMMANDS).as("comandos find enviados").hasSize(1);
+        BsonDocument find = new BsonDocument();
+        // Campos de sessão e de roteamento ($db, lsid, $clusterTime...) não entram no explain
+        FIND_COMMANDS.get(0).forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid")) {
+                find.append(key, value);
+            }
+        });
+        Document explain = mongoTemplate.getDb().runCommand(
+                new BsonDocument("explain", find).append("verbosity", new BsonString("queryPlanner")));
+
+        List<String> stages = new ArrayList<>();
+        collectStages(((Document) explain.get("queryPlanner")).get("winningPlan"), stages);
+        assertThat(stages).as("plano vencedor para %s", find.toJson()).contains("IXSCAN").doesNotContain("COLLSCAN");
+    }
+
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            Object stage = map.get("stage");
+            if (stage != null) {
+                stages.add(stage.toString());
+            }
+            map.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
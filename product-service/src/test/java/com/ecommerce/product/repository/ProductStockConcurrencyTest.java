@@ -0,0 +1,129 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Muitas baixas simultâneas sobre o mesmo produto: nenhuma venda além do estoque e nenhuma atualização perdida
+@DataMongoTest
+@DisabledIfSystemProperty(named = EmbeddedMongo.SKIP_PROPERTY, matches = "true")
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 200;
+
+    @BeforeAll
+    static void startMongo() {
+        EmbeddedMongo.start();
+    }
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        EmbeddedMongo.register(registry);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void singleDecrementNeverOversells() throws Exception {
+        productRepository.save(product("hot", 50));
+
+        List<Boolean> results = hammer(() -> productRepository.decrementStock("hot", 1).isPresent());
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(50);
+        assertThat(productRepository.findById("hot").orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void concurrentIncrementsAndDecrementsAreNotLost() throws Exception {
+        productRepository.save(product("hot", 1000));
+
+        // Metade das chamadas devolve estoque, metade baixa; nenhuma trava além das do próprio Mongo
+        AtomicInteger calls = new AtomicInteger();
+        List<Boolean> results = hammer(() -> calls.getAndIncrement() % 2 == 0
+                ? productRepository.incrementStock("hot", 3).isPresent()
+                : productRepository.decrementStock("hot", 3).isPresent());
+
+        assertThat(results).containsOnly(true);
+        assertThat(productRepository.findById("hot").orElseThrow().getQuantity()).isEqualTo(1000);
+    }
+
+    @Test
+    void multiLineDecrementIsAllOrNothingUnderContention() throws Exception {
+        productRepository.save(product("a", 30));
+        productRepository.save(product("b", 40));
+
+        List<Boolean> results = hammer(() -> productRepository.decrementStock(Map.of("a", 1, "b", 1)));
+
+        long succeeded = results.stream().filter(Boolean::booleanValue).count();
+        assertThat(succeeded).isEqualTo(30);
+        assertThat(productRepository.findById("a").orElseThrow().getQuantity()).isZero();
+        assertThat(productRepository.findById("b").orElseThrow().getQuantity()).isEqualTo(10);
+        // Nenhuma marca de operação pendente sobra depois das baixas e dos rollbacks
+        assertThat(mongoTemplate.getCollection("products")
+                .countDocuments(new Document("pendingStockOperations.0", new Document("$exists", true)))).isZero();
+    }
+
+    private List<Boolean> hammer(Callable<Boolean> decrement) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return decrement.call();
+                }));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Product product(String id, int quantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Produto " + id);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(quantity);
+        return product;
+    }
+}
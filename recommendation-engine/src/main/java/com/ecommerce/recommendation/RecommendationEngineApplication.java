@@ -0,0 +1,12 @@
+package com.ecommerce.recommendation;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class RecommendationEngineApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(RecommendationEngineApplication.class, args);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.recommendation.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Projections.slice;
+import static com.mongodb.client.model.Projections.fields;
+
+// Nome, preço e imagem dos produtos em memória, para montar a resposta sem consultar o Mongo por requisição
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalog implements SmartInitializingSingleton {
+
+    private static final String PRODUCTS_COLLECTION = "products";
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, ProductSummary> products = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            mongoTemplate.getCollection(PRODUCTS_COLLECTION)
+                    .find()
+                    .projection(projection())
+                    .forEach(document -> {
+                        ProductSummary summary = toSummary(document);
+                        products.put(summary.getId(), summary);
+                    });
+            log.info("Catálogo carregado com {} produtos", products.size());
+        } catch (Exception e) {
+            log.error("Erro ao carregar catálogo de produtos: {}", e.getMessage());
+        }
+    }
+
+    public ProductSummary get(String productId) {
+        return products.get(productId);
+    }
+
+    public void refresh(String productId) {
+        Object id = ObjectId.isValid(productId) ? new ObjectId(productId) : productId;
+        Document document = mongoTemplate.getCollection(PRODUCTS_COLLECTION)
+                .find(eq("_id", id))
+                .projection(projection())
+                .first();
+
+        if (document == null) {
+            products.remove(productId);
+        } else {
+            products.put(productId, toSummary(document));
+        }
+    }
+
+    public void remove(String productId) {
+        products.remove(productId);
+    }
+
+    private Bson projection() {
+        return fields(include("name", "price"), slice("images", 1));
+    }
+
+    private ProductSummary toSummary(Document document) {
+        List<?> images = document.getList("images", Object.class);
+        String imageUrl = images != null && !images.isEmpty() ? String.valueOf(images.get(0)) : "";
+        return new ProductSummary(
+                document.get("_id").toString(),
+                document.get("name") != null ? document.get("name").toString() : "",
+                toDouble(document.get("price")),
+                imageUrl);
+    }
+
+    // O product-service grava o preço como Decimal128 (documentos antigos são convertidos na inicialização)
+    private double toDouble(Object price) {
+        return price instanceof Decimal128 decimal ? decimal.bigDecimalValue().doubleValue() : 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.recommendation.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductSummary {
+    private final String id;
+    private final String name;
+    private final double price;
+    private final String imageUrl;
+}
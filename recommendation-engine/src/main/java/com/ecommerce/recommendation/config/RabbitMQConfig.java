@@ -0,0 +1,57 @@
+package com.ecommerce.recommendation.config;
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    // Pedidos criados (publicados pelo order-service)
+    public static final String ORDER_EXCHANGE = "order.exchange";
+    public static final String ORDER_PLACED_ROUTING_KEY = "order.placed";
+    public static final String ORDER_PLACED_QUEUE = "recommendation.order.placed.queue";
+
+    // Alterações de produto (publicadas pelo product-service)
+    public static final String PRODUCT_CHANGED_EXCHANGE = "product.changed.exchange";
+
+    @Bean
+    public TopicExchange orderExchange() {
+        return new TopicExchange(ORDER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue orderPlacedQueue() {
+        return new Queue(ORDER_PLACED_QUEUE, true);
+    }
+
+    @Bean
+    public Binding orderPlacedBinding(Queue orderPlacedQueue, TopicExchange orderExchange) {
+        return BindingBuilder.bind(orderPlacedQueue)
+                .to(orderExchange)
+                .with(ORDER_PLACED_ROUTING_KEY);
+    }
+
+    @Bean
+    public FanoutExchange productChangedExchange() {
+        return new FanoutExchange(PRODUCT_CHANGED_EXCHANGE);
+    }
+
+    // Fila exclusiva por instância: cada réplica mantém o próprio catálogo em memória
+    @Bean
+    public Queue productChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding productChangedBinding(Queue productChangedQueue, FanoutExchange productChangedExchange) {
+        return BindingBuilder.bind(productChangedQueue).to(productChangedExchange);
+    }
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.recommendation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private Long orderId;
+    private String userId;
+    private List<String> productIds;
+    private LocalDateTime createdAt;
+}
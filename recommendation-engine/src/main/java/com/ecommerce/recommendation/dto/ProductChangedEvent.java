@@ -0,0 +1,16 @@
+package com.ecommerce.recommendation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private String productId;
+    private String changeType;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.recommendation.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.protobuf.services.HealthStatusManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final RecommendationGrpcService recommendationGrpcService;
+
+    @Value("${recommendations.grpc.port:50051}")
+    private int port;
+
+    private Server server;
+    private final HealthStatusManager healthStatusManager = new HealthStatusManager();
+
+    @Override
+    public void start() {
+        try {
+            server = ServerBuilder.forPort(port)
+                    .addService(recommendationGrpcService)
+                    .addService(healthStatusManager.getHealthService())
+                    .build()
+                    .start();
+            healthStatusManager.setStatus("", HealthCheckResponse.ServingStatus.SERVING);
+            log.info("Servidor gRPC de recomendações iniciado na porta {}", port);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao iniciar servidor gRPC na porta " + port, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (server == null) {
+            return;
+        }
+        healthStatusManager.enterTerminalState();
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(10, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isShutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.recommendation.grpc;
+
+import com.ecommerce.recommendation.catalog.ProductCatalog;
+import com.ecommerce.recommendation.catalog.ProductSummary;
+import com.ecommerce.recommendation.grpc.proto.Product;
+import com.ecommerce.recommendation.grpc.proto.ProductRecommendationRequest;
+import com.ecommerce.recommendation.grpc.proto.ProductRecommendationResponse;
+import com.ecommerce.recommendation.grpc.proto.RecommendationServiceGrpc;
+import com.ecommerce.recommendation.model.CoOccurrenceModel;
+import com.ecommerce.recommendation.model.ScoredProduct;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RecommendationGrpcService extends RecommendationServiceGrpc.RecommendationServiceImplBase {
+
+    private final CoOccurrenceModel coOccurrenceModel;
+    private final ProductCatalog productCatalog;
+
+    @Value("${recommendations.default-max-results:4}")
+    private int defaultMaxResults;
+
+    @Value("${recommendations.max-results-limit:50}")
+    private int maxResultsLimit;
+
+    @Override
+    public void getProductRecommendations(ProductRecommendationRequest request,
+                                          StreamObserver<ProductRecommendationResponse> responseObserver) {
+        if (request.getProductId().isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("product_id é obrigatório")
+                    .asRuntimeException());
+            return;
+        }
+
+        int maxResults = request.getMaxResults() > 0
+                ? Math.min(request.getMaxResults(), maxResultsLimit)
+                : defaultMaxResults;
+
+        ProductRecommendationResponse.Builder response = ProductRecommendationResponse.newBuilder();
+        for (ScoredProduct scored : coOccurrenceModel.recommend(request.getProductId())) {
+            if (response.getProductsCount() == maxResults) {
+                break;
+            }
+            // Produtos removidos do catálogo continuam no histórico de pedidos, mas não são recomendados
+            ProductSummary summary = productCatalog.get(scored.getProductId());
+            if (summary == null) {
+                continue;
+            }
+            response.addProducts(Product.newBuilder()
+                    .setId(summary.getId())
+                    .setName(summary.getName())
+                    .setPrice(summary.getPrice())
+                    .setImageUrl(summary.getImageUrl())
+                    .setSimilarityScore(scored.getScore())
+                    .build());
+        }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.recommendation.messaging;
+
+import com.ecommerce.recommendation.dto.OrderPlacedEvent;
+import com.ecommerce.recommendation.model.CoOccurrenceModel;
+import com.ecommerce.recommendation.model.CoOccurrenceModelLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import static com.ecommerce.recommendation.config.RabbitMQConfig.ORDER_PLACED_QUEUE;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPlacedListener {
+
+    private final CoOccurrenceModel coOccurrenceModel;
+    private final CoOccurrenceModelLoader coOccurrenceModelLoader;
+
+    @RabbitListener(queues = ORDER_PLACED_QUEUE)
+    public void handleOrderPlaced(OrderPlacedEvent event) {
+        if (event.getProductIds() == null || event.getProductIds().isEmpty()) {
+            return;
+        }
+        if (!coOccurrenceModelLoader.shouldApply(event.getOrderId())) {
+            log.debug("Pedido {} já incluído no modelo", event.getOrderId());
+            return;
+        }
+
+        coOccurrenceModel.recordOrder(event.getProductIds());
+        log.debug("Modelo atualizado com o pedido {} ({} produtos)", event.getOrderId(), event.getProductIds().size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.recommendation.messaging;
+
+import com.ecommerce.recommendation.catalog.ProductCatalog;
+import com.ecommerce.recommendation.dto.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductChangedListener {
+
+    private final ProductCatalog productCatalog;
+
+    @RabbitListener(queues = "#{productChangedQueue.name}")
+    public void handleProductChanged(ProductChangedEvent event) {
+        if (event.getProductId() == null) {
+            return;
+        }
+        if ("DELETED".equals(event.getChangeType())) {
+            productCatalog.remove(event.getProductId());
+        } else if (!"STOCK_CHANGED".equals(event.getChangeType())) {
+            productCatalog.refresh(event.getProductId());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.recommendation.model;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Modelo item-item: quantos pedidos contêm cada produto e cada par de produtos.
+// Similaridade = co-ocorrência(a, b) / sqrt(pedidos(a) * pedidos(b)) (cosseno).
+@Component
+public class CoOccurrenceModel {
+
+    private final Map<String, Integer> orderCounts = new HashMap<>();
+    private final Map<String, Map<String, Integer>> coOccurrences = new HashMap<>();
+    // Top-N já ordenado por produto; um modelo aquecido responde só com esta leitura
+    private final Map<String, List<ScoredProduct>> topNeighbors = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${recommendations.max-results-limit:50}")
+    private int maxNeighbors;
+
+    public void recordOrder(Collection<String> productIds) {
+        Set<String> distinct = new LinkedHashSet<>(productIds);
+        if (distinct.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String productId : distinct) {
+                orderCounts.merge(productId, 1, Integer::sum);
+                Map<String, Integer> row = coOccurrences.computeIfAbsent(productId, key -> new HashMap<>());
+                for (String other : distinct) {
+                    if (!other.equals(productId)) {
+                        row.merge(other, 1, Integer::sum);
+                    }
+                }
+                // Só os produtos do pedido são recalculados; nos vizinhos a normalização fica
+                // levemente defasada até a próxima compra que os envolva
+                topNeighbors.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ScoredProduct> recommend(String productId) {
+        List<ScoredProduct> cached = topNeighbors.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<ScoredProduct> computed = computeNeighbors(productId);
+            // Gravado ainda sob o read lock, para não sobrescrever uma invalidação feita por recordOrder
+            topNeighbors.put(productId, computed);
+            return computed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int productCount() {
+        lock.readLock().lock();
+        try {
+            return orderCounts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ScoredProduct> computeNeighbors(String productId) {
+        Map<String, Integer> row = coOccurrences.get(productId);
+        if (row == null || row.isEmpty()) {
+            return List.of();
+        }
+
+        double productOrders = orderCounts.get(productId);
+        PriorityQueue<ScoredProduct> best = new PriorityQueue<>(Comparator.comparingDouble(ScoredProduct::getScore));
+        row.forEach((other, together) -> {
+            double score = together / Math.sqrt(productOrders * orderCounts.get(other));
+            best.offer(new ScoredProduct(other, score));
+            if (best.size() > maxNeighbors) {
+                best.poll();
+            }
+        });
+
+        List<ScoredProduct> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(ScoredProduct::getScore).reversed()
+                .thenComparing(ScoredProduct::getProductId));
+        return List.copyOf(ranked);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.recommendation.model;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Carrega o histórico de order_items antes dos listeners começarem a consumir eventos de pedido.
+// Eventos de pedidos já incluídos na carga (id <= maior id lido) são ignorados depois.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoOccurrenceModelLoader implements SmartInitializingSingleton {
+
+    private static final String ORDER_ITEMS_QUERY =
+            "SELECT oi.order_id, oi.product_id FROM order_items oi " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.status <> 'CANCELLED' " +
+            "ORDER BY oi.order_id";
+
+    // Ids de pedidos aplicados via evento, para descartar reentregas do outbox
+    private static final int RECENT_ORDERS_CAPACITY = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CoOccurrenceModel coOccurrenceModel;
+
+    @Value("${recommendations.bootstrap-fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile long bootstrapMaxOrderId;
+    private final Map<Long, Boolean> recentOrders = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_ORDERS_CAPACITY;
+        }
+    };
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        long[] currentOrderId = {-1};
+        long[] orders = {0};
+        List<String> currentItems = new ArrayList<>();
+
+        try {
+            jdbcTemplate.setFetchSize(fetchSize);
+            jdbcTemplate.query(ORDER_ITEMS_QUERY, rs -> {
+                long orderId = rs.getLong("order_id");
+                if (orderId != currentOrderId[0]) {
+                    if (!currentItems.isEmpty()) {
+                        coOccurrenceModel.recordOrder(currentItems);
+                        orders[0]++;
+                    }
+                    currentItems.clear();
+                    currentOrderId[0] = orderId;
+                }
+                currentItems.add(rs.getString("product_id"));
+            });
+            if (!currentItems.isEmpty()) {
+                coOccurrenceModel.recordOrder(currentItems);
+                orders[0]++;
+            }
+            bootstrapMaxOrderId = Math.max(currentOrderId[0], 0);
+            log.info("Modelo de co-ocorrência carregado com {} pedidos e {} produtos em {} ms",
+                    orders[0], coOccurrenceModel.productCount(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Sem o histórico o serviço sobe vazio e aprende só com os novos pedidos
+            log.error("Erro ao carregar histórico de pedidos para o modelo de recomendação: {}", e.getMessage());
+        }
+    }
+
+    public synchronized boolean shouldApply(Long orderId) {
+        if (orderId == null) {
+            return true;
+        }
+        if (orderId <= bootstrapMaxOrderId) {
+            return false;
+        }
+        return recentOrders.put(orderId, Boolean.TRUE) == null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.recommendation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ScoredProduct {
+    private final String productId;
+    private final double score;
+}